@@ -0,0 +1,81 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.Arreglos;
+import mx.unam.ciencias.edd.IndiceEytzinger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark de {@link Arreglos#busquedaBinaria} sobre enteros, contra {@link
+ * IndiceEytzinger} buscando una llave a la vez y por lotes. Cada invocacion
+ * hace {@link #BUSQUEDAS} busquedas de llaves al azar, la mitad de las cuales
+ * no estan en el arreglo; los tamaños van de caber en cache a no caber.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusquedaBinariaBenchmark {
+
+	/** El numero de busquedas por invocacion. */
+	public static final int BUSQUEDAS = 1024;
+
+	@Param({"1000", "100000", "10000000"})
+	private int n;
+
+	private Integer[] arreglo;
+	private Integer[] llaves;
+	private IndiceEytzinger<Integer> indice;
+	private int[] resultados;
+
+	@Setup
+	public void prepara() {
+		arreglo = Datos.enterosOrdenados(n);
+		llaves = new Integer[BUSQUEDAS];
+		Random r = new Random(n);
+		for ( int i = 0; i < BUSQUEDAS; i++ )
+			llaves[i] = r.nextInt(2 * n);
+		indice = IndiceEytzinger.crea(arreglo);
+		resultados = new int[BUSQUEDAS];
+
+		/* Los tres benchmarks deben dar las mismas respuestas. */
+		indice.busca(llaves, resultados);
+		for ( int i = 0; i < BUSQUEDAS; i++ ) {
+			int b = Arreglos.busquedaBinaria(arreglo, llaves[i]);
+			if ( indice.busca(llaves[i]) != b || resultados[i] != b )
+				throw new IllegalStateException("Respuestas distintas para " + llaves[i]);
+		}
+	}
+
+	@Benchmark
+	public void busquedaBinaria(Blackhole bh) {
+		for ( Integer llave : llaves )
+			bh.consume(Arreglos.busquedaBinaria(arreglo, llave));
+	}
+
+	@Benchmark
+	public void eytzinger(Blackhole bh) {
+		for ( Integer llave : llaves )
+			bh.consume(indice.busca(llave));
+	}
+
+	@Benchmark
+	public int[] eytzingerPorLotes() {
+		indice.busca(llaves, resultados);
+		return resultados;
+	}
+}
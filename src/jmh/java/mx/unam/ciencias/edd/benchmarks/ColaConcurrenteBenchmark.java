@@ -0,0 +1,146 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.ColaConcurrente;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput de {@link ColaConcurrente} con contencion: dos hilos meten y dos
+ * sacan de la misma cola, sin bloquear. Se compara con {@link
+ * ArrayBlockingQueue} (acotada, con candado) y {@link ConcurrentLinkedQueue}
+ * (ligada, sin candados y sin cota). Los contadores <code>metidos</code> y
+ * <code>sacados</code> cuentan solo las operaciones que lograron su objetivo;
+ * los intentos fallidos con la cola llena o vacia no cuentan. En los grupos
+ * <code>*MeteYSaca</code> cada uno de cuatro hilos mete un elemento y saca
+ * otro, asi que casi todas las operaciones tienen exito.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColaConcurrenteBenchmark {
+
+	private static final int CAPACIDAD = 1024;
+	private static final Integer ELEMENTO = 17;
+
+	/** Los contadores de operaciones exitosas de cada hilo. */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Contadores {
+		public long metidos;
+		public long sacados;
+
+		@Setup(Level.Iteration)
+		public void limpia() {
+			metidos = 0;
+			sacados = 0;
+		}
+	}
+
+	private ColaConcurrente<Integer> cola;
+	private ArrayBlockingQueue<Integer> arrayBlocking;
+	private ConcurrentLinkedQueue<Integer> concurrentLinked;
+
+	@Setup(Level.Iteration)
+	public void prepara() {
+		cola = new ColaConcurrente<Integer>(CAPACIDAD);
+		arrayBlocking = new ArrayBlockingQueue<Integer>(CAPACIDAD);
+		concurrentLinked = new ConcurrentLinkedQueue<Integer>();
+	}
+
+	@Benchmark
+	@Group("colaConcurrenteMeteYSaca")
+	@GroupThreads(4)
+	public Integer colaConcurrenteMeteYSaca() {
+		cola.intentaMeter(ELEMENTO);
+		return cola.intentaSacar();
+	}
+
+	@Benchmark
+	@Group("arrayBlockingQueueMeteYSaca")
+	@GroupThreads(4)
+	public Integer arrayBlockingQueueMeteYSaca() {
+		arrayBlocking.offer(ELEMENTO);
+		return arrayBlocking.poll();
+	}
+
+	@Benchmark
+	@Group("concurrentLinkedQueueMeteYSaca")
+	@GroupThreads(4)
+	public Integer concurrentLinkedQueueMeteYSaca() {
+		concurrentLinked.offer(ELEMENTO);
+		return concurrentLinked.poll();
+	}
+
+	@Benchmark
+	@Group("colaConcurrente")
+	@GroupThreads(2)
+	public void colaConcurrenteMete(Contadores c) {
+		if ( cola.intentaMeter(ELEMENTO) )
+			c.metidos++;
+	}
+
+	@Benchmark
+	@Group("colaConcurrente")
+	@GroupThreads(2)
+	public Integer colaConcurrenteSaca(Contadores c) {
+		Integer e = cola.intentaSacar();
+		if ( e != null )
+			c.sacados++;
+		return e;
+	}
+
+	@Benchmark
+	@Group("arrayBlockingQueue")
+	@GroupThreads(2)
+	public void arrayBlockingQueueMete(Contadores c) {
+		if ( arrayBlocking.offer(ELEMENTO) )
+			c.metidos++;
+	}
+
+	@Benchmark
+	@Group("arrayBlockingQueue")
+	@GroupThreads(2)
+	public Integer arrayBlockingQueueSaca(Contadores c) {
+		Integer e = arrayBlocking.poll();
+		if ( e != null )
+			c.sacados++;
+		return e;
+	}
+
+	@Benchmark
+	@Group("concurrentLinkedQueue")
+	@GroupThreads(2)
+	public void concurrentLinkedQueueMete(Contadores c) {
+		/* Sin cota la cola creceria sin fin; se acota por fuera, sin candado. */
+		if ( concurrentLinked.size() < CAPACIDAD && concurrentLinked.offer(ELEMENTO) )
+			c.metidos++;
+	}
+
+	@Benchmark
+	@Group("concurrentLinkedQueue")
+	@GroupThreads(2)
+	public Integer concurrentLinkedQueueSaca(Contadores c) {
+		Integer e = concurrentLinked.poll();
+		if ( e != null )
+			c.sacados++;
+		return e;
+	}
+}
@@ -0,0 +1,126 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.Cola;
+import mx.unam.ciencias.edd.ColaArreglo;
+import mx.unam.ciencias.edd.Pila;
+import mx.unam.ciencias.edd.PilaArreglo;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de <code>mete</code>/<code>saca</code> en {@link Cola} y {@link
+ * Pila}, y en sus versiones con arreglo {@link ColaArreglo} y {@link
+ * PilaArreglo}: cada invocacion mete <code>n</code> elementos y luego los saca
+ * todos. Los benchmarks <code>*Reusada</code> usan siempre la misma estructura,
+ * que ya alcanzo su tamaño, para medir el estado estable sin asignaciones; los
+ * <code>*Bloques</code> usan <code>meteTodos</code> y <code>sacaHasta</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColasBenchmark {
+
+	@Param({"16", "1000", "100000"})
+	private int n;
+
+	private Integer[] elementos;
+	private Integer[] destino;
+	private ColaArreglo<Integer> colaReusada;
+	private PilaArreglo<Integer> pilaReusada;
+
+	@Setup
+	public void prepara() {
+		elementos = Datos.enterosOrdenados(n);
+		destino = new Integer[n];
+		colaReusada = new ColaArreglo<Integer>(n);
+		pilaReusada = new PilaArreglo<Integer>(n);
+	}
+
+	@Benchmark
+	public void colaMeteSaca(Blackhole bh) {
+		Cola<Integer> cola = new Cola<Integer>();
+		for ( Integer e : elementos )
+			cola.mete(e);
+		while ( !cola.esVacia() )
+			bh.consume(cola.saca());
+	}
+
+	@Benchmark
+	public void pilaMeteSaca(Blackhole bh) {
+		Pila<Integer> pila = new Pila<Integer>();
+		for ( Integer e : elementos )
+			pila.mete(e);
+		while ( !pila.esVacia() )
+			bh.consume(pila.saca());
+	}
+
+	@Benchmark
+	public void colaArregloMeteSaca(Blackhole bh) {
+		ColaArreglo<Integer> cola = new ColaArreglo<Integer>();
+		for ( Integer e : elementos )
+			cola.mete(e);
+		while ( !cola.esVacia() )
+			bh.consume(cola.saca());
+	}
+
+	@Benchmark
+	public void pilaArregloMeteSaca(Blackhole bh) {
+		PilaArreglo<Integer> pila = new PilaArreglo<Integer>();
+		for ( Integer e : elementos )
+			pila.mete(e);
+		while ( !pila.esVacia() )
+			bh.consume(pila.saca());
+	}
+
+	@Benchmark
+	public void colaArregloReusada(Blackhole bh) {
+		for ( Integer e : elementos )
+			colaReusada.mete(e);
+		while ( !colaReusada.esVacia() )
+			bh.consume(colaReusada.saca());
+	}
+
+	@Benchmark
+	public void pilaArregloReusada(Blackhole bh) {
+		for ( Integer e : elementos )
+			pilaReusada.mete(e);
+		while ( !pilaReusada.esVacia() )
+			bh.consume(pilaReusada.saca());
+	}
+
+	@Benchmark
+	public void colaBloques(Blackhole bh) {
+		Cola<Integer> cola = new Cola<Integer>();
+		cola.meteTodos(elementos);
+		bh.consume(cola.sacaHasta(destino, n));
+		bh.consume(destino);
+	}
+
+	@Benchmark
+	public void colaArregloBloques(Blackhole bh) {
+		colaReusada.meteTodos(elementos);
+		bh.consume(colaReusada.sacaHasta(destino, n));
+		bh.consume(destino);
+	}
+
+	@Benchmark
+	public void pilaArregloBloques(Blackhole bh) {
+		pilaReusada.meteTodos(elementos);
+		bh.consume(pilaReusada.sacaHasta(destino, n));
+		bh.consume(destino);
+	}
+}
@@ -0,0 +1,58 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.proyecto1.StringLexicographicalComparator;
+import mx.unam.ciencias.edd.proyecto1.StripAccents;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de {@link StringLexicographicalComparator#compare} y de {@link
+ * StripAccents#stripAccents}. Cada invocacion recorre {@link #LINEAS} lineas
+ * de la distribucion, comparando cada una con la siguiente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparadorBenchmark {
+
+	/** El numero de lineas por invocacion. */
+	public static final int LINEAS = 1024;
+
+	@Param({"aleatorio", "ordenado", "repetidos", "acentos"})
+	private String distribucion;
+
+	private String[] lineas;
+	private StringLexicographicalComparator comparador;
+
+	@Setup
+	public void prepara() {
+		lineas = Datos.lineas(LINEAS, distribucion);
+		comparador = new StringLexicographicalComparator();
+	}
+
+	@Benchmark
+	public void compare(Blackhole bh) {
+		for ( int i = 1; i < lineas.length; i++ )
+			bh.consume(comparador.compare(lineas[i - 1], lineas[i]));
+	}
+
+	@Benchmark
+	public void stripAccents(Blackhole bh) {
+		for ( String l : lineas )
+			bh.consume(StripAccents.stripAccents(l));
+	}
+}
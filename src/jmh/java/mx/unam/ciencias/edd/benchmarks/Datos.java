@@ -0,0 +1,121 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.proyecto1.StringLexicographicalComparator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * <p>Generador de las entradas de los benchmarks.</p>
+ *
+ * <p>Las entradas se generan con una semilla fija, asi que dos corridas con
+ * los mismos parametros miden exactamente los mismos datos. Las
+ * distribuciones son:</p>
+ *
+ * <ul>
+ *   <li><code>aleatorio</code>: palabras ASCII al azar.</li>
+ *   <li><code>ordenado</code>: las mismas lineas, ya ordenadas.</li>
+ *   <li><code>inverso</code>: las mismas lineas, en orden inverso.</li>
+ *   <li><code>repetidos</code>: solo 16 lineas distintas.</li>
+ *   <li><code>acentos</code>: texto en español con acentos, eñes y signos
+ *       de interrogacion y exclamacion.</li>
+ * </ul>
+ */
+public class Datos {
+
+	/* La semilla de todas las entradas. */
+	private static final long SEMILLA = 0x5eed;
+
+	/* Palabras para el texto en español. */
+	private static final String[] PALABRAS = {
+		"canción", "Canción", "niño", "NIÑO", "árbol", "Árbol", "Ñandú", "ñandu",
+		"¿qué?", "que", "¡hola!", "Hola", "pingüino", "corazón", "él", "el",
+		"Élite", "espíritu", "múltiple", "acción", "año", "ano", "mañana",
+		"pájaro", "última", "ultima", "índice", "Íñigo", "búsqueda", "camión",
+		"publicación,", "también.", "después", "según", "Málaga", "Ávila",
+	};
+
+	/* Constructor privado para evitar instanciacion. */
+	private Datos() {}
+
+	/**
+	 * Genera <code>n</code> lineas con la distribucion dada.
+	 * @param n el numero de lineas.
+	 * @param distribucion el nombre de la distribucion.
+	 * @return las lineas generadas.
+	 * @throws IllegalArgumentException si la distribucion no existe.
+	 */
+	public static String[] lineas(int n, String distribucion) {
+		Random r = new Random(SEMILLA);
+		String[] lineas = new String[n];
+		switch ( distribucion ) {
+			case "aleatorio":
+			case "ordenado":
+			case "inverso":
+				for ( int i = 0; i < n; i++ )
+					lineas[i] = ascii(r);
+				break;
+			case "repetidos":
+				String[] distintas = new String[16];
+				for ( int i = 0; i < distintas.length; i++ )
+					distintas[i] = ascii(r);
+				for ( int i = 0; i < n; i++ )
+					lineas[i] = distintas[r.nextInt(distintas.length)];
+				break;
+			case "acentos":
+				for ( int i = 0; i < n; i++ )
+					lineas[i] = lineaEspanol(r);
+				break;
+			default:
+				throw new IllegalArgumentException("Distribucion invalida: " + distribucion);
+		}
+
+		if ( distribucion.equals("ordenado") )
+			Arrays.sort(lineas, new StringLexicographicalComparator());
+		if ( distribucion.equals("inverso") )
+			Arrays.sort(lineas, Collections.reverseOrder(new StringLexicographicalComparator()));
+
+		return lineas;
+	}
+
+	/**
+	 * Genera <code>n</code> enteros distintos ordenados, los pares de 0 a 2n.
+	 * Buscar un impar siempre falla.
+	 * @param n el numero de enteros.
+	 * @return los enteros generados.
+	 */
+	public static Integer[] enterosOrdenados(int n) {
+		Integer[] enteros = new Integer[n];
+		for ( int i = 0; i < n; i++ )
+			enteros[i] = 2 * i;
+		return enteros;
+	}
+
+	/* Una linea de 2 a 8 palabras ASCII en minusculas y mayusculas. */
+	private static String ascii(Random r) {
+		StringBuilder sb = new StringBuilder();
+		int palabras = 2 + r.nextInt(7);
+		for ( int i = 0; i < palabras; i++ ) {
+			if ( i > 0 )
+				sb.append(' ');
+			int letras = 1 + r.nextInt(9);
+			for ( int j = 0; j < letras; j++ ) {
+				char c = (char)('a' + r.nextInt(26));
+				sb.append(r.nextInt(8) == 0 ? Character.toUpperCase(c) : c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/* Una linea de 2 a 8 palabras en español. */
+	private static String lineaEspanol(Random r) {
+		StringBuilder sb = new StringBuilder();
+		int palabras = 2 + r.nextInt(7);
+		for ( int i = 0; i < palabras; i++ ) {
+			if ( i > 0 )
+				sb.append(' ');
+			sb.append(PALABRAS[r.nextInt(PALABRAS.length)]);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,94 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.Lista;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de {@link Lista#contiene} y {@link Lista#elimina} con y sin el
+ * indice hash de {@link Lista#activaIndice}. Cada invocacion busca
+ * {@link #BUSQUEDAS} lineas al azar, la mitad de las cuales no estan en la
+ * lista, o elimina y vuelve a agregar {@link #BUSQUEDAS} lineas que si estan.
+ *
+ * <p><code>activaIndice</code> construye el indice de toda la lista; con
+ * <code>-prof gc</code>, su <code>gc.alloc.rate.norm</code> entre
+ * <code>n</code> da los bytes por elemento que cuesta el indice (un poco
+ * mas que lo que retiene, porque incluye las tablas que el {@link
+ * java.util.HashMap} descarta al crecer).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListaBenchmark {
+
+	/** El numero de busquedas por invocacion. */
+	public static final int BUSQUEDAS = 16;
+
+	@Param({"1000", "100000", "1000000"})
+	private int n;
+
+	@Param({"false", "true"})
+	private boolean indice;
+
+	private Lista<String> lista;
+	private String[] buscadas;
+	private String[] presentes;
+
+	@Setup
+	public void prepara() {
+		String[] lineas = Datos.lineas(n, "aleatorio");
+		lista = new Lista<String>();
+		for ( String l : lineas )
+			lista.agrega(l);
+		if ( indice )
+			lista.activaIndice();
+
+		Random r = new Random(n);
+		buscadas = new String[BUSQUEDAS];
+		presentes = new String[BUSQUEDAS];
+		for ( int i = 0; i < BUSQUEDAS; i++ ) {
+			presentes[i] = lineas[r.nextInt(n)];
+			// Las lineas generadas no tienen '#', asi que las impares no estan.
+			buscadas[i] = ( i % 2 == 0 ) ? presentes[i] : presentes[i] + "#";
+		}
+	}
+
+	@Benchmark
+	public void contiene(Blackhole bh) {
+		for ( String b : buscadas )
+			bh.consume(lista.contiene(b));
+	}
+
+	@Benchmark
+	public void eliminaAgrega() {
+		// Cada linea regresa al final, asi que la lista no cambia de tamaño.
+		for ( String p : presentes ) {
+			lista.elimina(p);
+			lista.agrega(p);
+		}
+	}
+
+	@Benchmark
+	public void activaIndice(Blackhole bh) {
+		lista.desactivaIndice();
+		lista.activaIndice();
+		bh.consume(lista.indiceActivo());
+		if ( !indice )
+			lista.desactivaIndice();
+	}
+}
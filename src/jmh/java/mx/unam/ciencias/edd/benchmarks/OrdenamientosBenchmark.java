@@ -0,0 +1,77 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.Arreglos;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.proyecto1.StringLexicographicalComparator;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de los ordenamientos de {@link Lista} y {@link Arreglos} con el
+ * comparador del proyecto. Cada invocacion ordena una copia de la entrada,
+ * asi que todas miden la misma distribucion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrdenamientosBenchmark {
+
+	@Param({"1000", "100000"})
+	private int n;
+
+	@Param({"aleatorio", "ordenado", "inverso", "repetidos", "acentos"})
+	private String distribucion;
+
+	private String[] lineas;
+	private Lista<String> lista;
+	private Comparator<String> comparador;
+
+	@Setup
+	public void prepara() {
+		lineas = Datos.lineas(n, distribucion);
+		lista = new Lista<String>();
+		for ( String l : lineas )
+			lista.agrega(l);
+		comparador = new StringLexicographicalComparator();
+	}
+
+	@Benchmark
+	public Lista<String> listaMergeSort() {
+		return lista.mergeSort(comparador);
+	}
+
+	@Benchmark
+	public String[] arreglosMergeSort() {
+		String[] a = lineas.clone();
+		Arreglos.mergeSort(a, comparador);
+		return a;
+	}
+
+	@Benchmark
+	public String[] arreglosQuickSort() {
+		String[] a = lineas.clone();
+		Arreglos.quickSort(a, comparador);
+		return a;
+	}
+
+	@Benchmark
+	public String[] arreglosQuickSortDoblePivote() {
+		String[] a = lineas.clone();
+		Arreglos.quickSortDoblePivote(a, comparador);
+		return a;
+	}
+}
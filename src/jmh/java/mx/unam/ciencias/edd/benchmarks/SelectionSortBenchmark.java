@@ -0,0 +1,53 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import mx.unam.ciencias.edd.Arreglos;
+import mx.unam.ciencias.edd.proyecto1.StringLexicographicalComparator;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark de {@link Arreglos#selectionSort}. Va aparte de {@link
+ * OrdenamientosBenchmark} porque es cuadratico: solo se mide con entradas
+ * chicas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionSortBenchmark {
+
+	@Param({"100", "1000"})
+	private int n;
+
+	@Param({"aleatorio", "ordenado", "inverso", "repetidos", "acentos"})
+	private String distribucion;
+
+	private String[] lineas;
+	private Comparator<String> comparador;
+
+	@Setup
+	public void prepara() {
+		lineas = Datos.lineas(n, distribucion);
+		comparador = new StringLexicographicalComparator();
+	}
+
+	@Benchmark
+	public String[] arreglosSelectionSort() {
+		String[] a = lineas.clone();
+		Arreglos.selectionSort(a, comparador);
+		return a;
+	}
+}
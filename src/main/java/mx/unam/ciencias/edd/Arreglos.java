@@ -1,15 +1,66 @@
 package mx.unam.ciencias.edd;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Clase para ordenar y buscar arreglos genéricos.
  */
 public class Arreglos {
 
+    /** Tamaño por omisión a partir del cual los ordenamientos paralelos ya no
+     *  dividen el trabajo. */
+    public static final int UMBRAL_PARALELO = 1 << 13;
+
+    /* Los intervalos más chicos que esto se ordenan por inserción. */
+    private static final int UMBRAL_INSERCION = 16;
+    /* A partir de este tamaño el pivote es la mediana de tres medianas. */
+    private static final int UMBRAL_NINTHER = 128;
+
     /* Constructor privado para evitar instanciación. */
     private Arreglos() {}
 
+    /* Tarea para ordenar en paralelo el intervalo [lo, hi) de un arreglo. */
+    private static class MergeSortParalelo<T> extends RecursiveAction {
+	    /* Versión de la clase para la serialización. */
+	    private static final long serialVersionUID = 1L;
+
+	    /* El arreglo a ordenar y el auxiliar para las mezclas. */
+	    private T[] arreglo;
+	    private T[] auxiliar;
+	    /* Los extremos del intervalo. */
+	    private int lo;
+	    private int hi;
+	    /* El comparador para ordenar. */
+	    private Comparator<T> comparador;
+	    /* Intervalos de a lo más este tamaño se ordenan secuencialmente. */
+	    private int umbral;
+
+	    private MergeSortParalelo(T[] arreglo, T[] auxiliar, int lo, int hi,
+				      Comparator<T> comparador, int umbral) {
+		    this.arreglo = arreglo;
+		    this.auxiliar = auxiliar;
+		    this.lo = lo;
+		    this.hi = hi;
+		    this.comparador = comparador;
+		    this.umbral = umbral;
+	    }
+
+	    @Override protected void compute() {
+		    if ( hi - lo <= umbral ) {
+			    mergeSort(arreglo, auxiliar, lo, hi, comparador);
+			    return;
+		    }
+
+		    int mitad = lo + ( hi - lo ) / 2;
+		    invokeAll(new MergeSortParalelo<T>(arreglo, auxiliar, lo, mitad, comparador, umbral),
+			      new MergeSortParalelo<T>(arreglo, auxiliar, mitad, hi, comparador, umbral));
+		    mezcla(arreglo, auxiliar, lo, mitad, hi, comparador);
+	    }
+    }
+
     private static <T> void intercambiaIndices(T[] arreglo, int i, int j) {
 	    // Creamos una variable temporal para guardar alguno de los valores del arreglo
 	    T x = arreglo[i];
@@ -19,40 +70,128 @@ public class Arreglos {
 	    arreglo[j] = x;
     }
 
+    /* Ordena [left, right] por inserción; es lo más rápido para intervalos chicos. */
     private static <T> void
-    quickSort(T[] arreglo, int left, int right, Comparator<T> comparador) {
-	    if ( right <=  left ) 
-		    return;
+    insercion(T[] arreglo, int left, int right, Comparator<T> comparador) {
+	    for ( int i = left + 1; i <= right; i++ ) {
+		    T x = arreglo[i];
+		    int j = i - 1;
+		    while ( j >= left && comparador.compare(arreglo[j], x) > 0 ) {
+			    arreglo[j+1] = arreglo[j];
+			    j--;
+		    }
+		    arreglo[j+1] = x;
+	    }
+    }
+
+    /* Regresa el índice de la mediana de los elementos en i, j y k. */
+    private static <T> int
+    mediana(T[] arreglo, int i, int j, int k, Comparator<T> comparador) {
+	    if ( comparador.compare(arreglo[i], arreglo[j]) < 0 ) {
+		    if ( comparador.compare(arreglo[j], arreglo[k]) < 0 )
+			    return j;
+		    return comparador.compare(arreglo[i], arreglo[k]) < 0 ? k : i;
+	    }
+	    if ( comparador.compare(arreglo[k], arreglo[j]) < 0 )
+		    return j;
+	    return comparador.compare(arreglo[k], arreglo[i]) < 0 ? k : i;
+    }
 
-	    int i = left + 1;
-	    int j = right;
+    /* Escoge el pivote de [left, right]: la mediana de tres, o la mediana de
+     * tres medianas (ninther) si el intervalo es grande. */
+    private static <T> int
+    pivote(T[] arreglo, int left, int right, Comparator<T> comparador) {
+	    int n = right - left + 1;
+	    int m = left + n / 2;
+	    if ( n <= UMBRAL_NINTHER )
+		    return mediana(arreglo, left, m, right, comparador);
 
-	    while ( i < j ) {
-		    if ( comparador.compare(arreglo[left], arreglo[i]) < 0 &&
-			 comparador.compare(arreglo[j], arreglo[left]) <= 0   ) {
+	    int e = n / 8;
+	    int a = mediana(arreglo, left, left + e, left + 2 * e, comparador);
+	    int b = mediana(arreglo, m - e, m, m + e, comparador);
+	    int c = mediana(arreglo, right - 2 * e, right - e, right, comparador);
+	    return mediana(arreglo, a, b, c, comparador);
+    }
 
-            		intercambiaIndices(arreglo, i, j);
-			i++;
-			j--;
+    /* Acomoda [left, right] como montículo de máximos con raíz en i. */
+    private static <T> void
+    acomoda(T[] arreglo, int left, int i, int n, Comparator<T> comparador) {
+	    while ( true ) {
+		    int h = 2 * i + 1;
+		    if ( h >= n )
+			    return;
+		    if ( h + 1 < n && comparador.compare(arreglo[left+h], arreglo[left+h+1]) < 0 )
+			    h++;
+		    if ( comparador.compare(arreglo[left+i], arreglo[left+h]) >= 0 )
+			    return;
+		    intercambiaIndices(arreglo, left + i, left + h);
+		    i = h;
+	    }
+    }
+
+    /* Ordena [left, right] con HeapSort; es el respaldo O(n log n) del QuickSort. */
+    private static <T> void
+    heapSort(T[] arreglo, int left, int right, Comparator<T> comparador) {
+	    int n = right - left + 1;
+	    for ( int i = n / 2 - 1; i >= 0; i-- )
+		    acomoda(arreglo, left, i, n, comparador);
+	    for ( int k = n - 1; k > 0; k-- ) {
+		    intercambiaIndices(arreglo, left, left + k);
+		    acomoda(arreglo, left, 0, k, comparador);
+	    }
+    }
+
+    /*
+     * QuickSort introspectivo sobre [left, right]. La partición es en tres
+     * (menores, iguales y mayores al pivote), así que los elementos repetidos
+     * no degradan el ordenamiento. Sólo se hace recursión sobre la parte más
+     * chica, y si la profundidad se agota se termina con HeapSort.
+     */
+    private static <T> void
+    quickSort(T[] arreglo, int left, int right, int profundidad, Comparator<T> comparador) {
+	    while ( right - left >= UMBRAL_INSERCION ) {
+		    if ( profundidad-- == 0 ) {
+			    heapSort(arreglo, left, right, comparador);
+			    return;
+		    }
+
+		    intercambiaIndices(arreglo, left, pivote(arreglo, left, right, comparador));
+		    T p = arreglo[left];
+		    int lt = left;
+		    int gt = right;
+		    int i = left + 1;
+		    while ( i <= gt ) {
+			    int c = comparador.compare(arreglo[i], p);
+			    if ( c < 0 )
+				    intercambiaIndices(arreglo, lt++, i++);
+			    else if ( c > 0 )
+				    intercambiaIndices(arreglo, i, gt--);
+			    else
+				    i++;
+		    }
+
+		    if ( lt - left < right - gt ) {
+			    quickSort(arreglo, left, lt - 1, profundidad, comparador);
+			    left = gt + 1;
 		    } else {
-			    if ( comparador.compare(arreglo[i], arreglo[left]) <= 0 ) {
-				   i++;
-			    } else {
-				   j--;
-			    }
+			    quickSort(arreglo, gt + 1, right, profundidad, comparador);
+			    right = lt - 1;
 		    }
 	    }
+	    insercion(arreglo, left, right, comparador);
+    }
 
-	   if ( comparador.compare(arreglo[left], arreglo[i]) < 0 )
-			  i--;
-
-	   intercambiaIndices(arreglo, left, i);
-	   quickSort(arreglo, left, i-1, comparador);
-	   quickSort(arreglo, i+1, right, comparador);
+    /* Regresa la profundidad máxima del QuickSort antes de pasar a HeapSort. */
+    private static int profundidadMaxima(int n) {
+	    return 2 * ( 32 - Integer.numberOfLeadingZeros(Math.max(n, 1)) );
     }
 
     /**
-     * Ordena el arreglo recibido usando QickSort.
+     * Ordena el arreglo recibido usando QickSort. El pivote es la mediana de
+     * tres (o de nueve en arreglos grandes), los intervalos chicos se ordenan
+     * por inserción y, si la recursión se hace demasiado profunda, el
+     * intervalo se termina con HeapSort; así el peor caso es O(n log n), aun
+     * con arreglos ordenados, en reversa o con muchos repetidos.
      * @param <T> tipo del que puede ser el arreglo.
      * @param arreglo el arreglo a ordenar.
      * @param comparador el comparador para ordenar el arreglo.
@@ -60,7 +199,7 @@ public class Arreglos {
 
     public static <T> void
     quickSort(T[] arreglo, Comparator<T> comparador) {
-	    quickSort(arreglo,0,arreglo.length-1,comparador);
+	    quickSort(arreglo, 0, arreglo.length - 1, profundidadMaxima(arreglo.length), comparador);
     }
 
     /**
@@ -73,7 +212,235 @@ public class Arreglos {
         quickSort(arreglo, (a, b) -> a.compareTo(b));
     }
 
+    /*
+     * QuickSort de doble pivote sobre [left, right]: parte en menores que p,
+     * entre p y q, y mayores que q. Comparte con quickSort el corte a inserción
+     * y el respaldo con HeapSort.
+     */
+    private static <T> void
+    quickSortDoblePivote(T[] arreglo, int left, int right, int profundidad,
+			 Comparator<T> comparador) {
+	    if ( right - left < UMBRAL_INSERCION ) {
+		    insercion(arreglo, left, right, comparador);
+		    return;
+	    }
+	    if ( profundidad-- == 0 ) {
+		    heapSort(arreglo, left, right, comparador);
+		    return;
+	    }
+
+	    int tercio = ( right - left + 1 ) / 3;
+	    intercambiaIndices(arreglo, left, left + tercio);
+	    intercambiaIndices(arreglo, right, right - tercio);
+	    if ( comparador.compare(arreglo[left], arreglo[right]) > 0 )
+		    intercambiaIndices(arreglo, left, right);
+	    T p = arreglo[left];
+	    T q = arreglo[right];
+
+	    int lt = left + 1;
+	    int gt = right - 1;
+	    int i = lt;
+	    while ( i <= gt ) {
+		    if ( comparador.compare(arreglo[i], p) < 0 )
+			    intercambiaIndices(arreglo, i++, lt++);
+		    else if ( comparador.compare(arreglo[i], q) > 0 )
+			    intercambiaIndices(arreglo, i, gt--);
+		    else
+			    i++;
+	    }
+	    intercambiaIndices(arreglo, left, --lt);
+	    intercambiaIndices(arreglo, right, ++gt);
+
+	    quickSortDoblePivote(arreglo, left, lt - 1, profundidad, comparador);
+	    // Si los pivotes son iguales, todo lo que quedó entre ellos es igual.
+	    if ( comparador.compare(p, q) < 0 )
+		    quickSortDoblePivote(arreglo, lt + 1, gt - 1, profundidad, comparador);
+	    quickSortDoblePivote(arreglo, gt + 1, right, profundidad, comparador);
+    }
+
+    /**
+     * Ordena el arreglo recibido usando QuickSort de doble pivote, con corte a
+     * inserción para intervalos chicos y HeapSort como respaldo si la
+     * recursión se hace demasiado profunda.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     */
+    public static <T> void
+    quickSortDoblePivote(T[] arreglo, Comparator<T> comparador) {
+	    quickSortDoblePivote(arreglo, 0, arreglo.length - 1,
+				 profundidadMaxima(arreglo.length), comparador);
+    }
+
+    /**
+     * Ordena el arreglo recibido usando QuickSort de doble pivote.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>> void
+    quickSortDoblePivote(T[] arreglo) {
+        quickSortDoblePivote(arreglo, (a, b) -> a.compareTo(b));
+    }
     
+    /* Mezcla los intervalos ordenados [lo, mitad) y [mitad, hi) del arreglo. */
+    private static <T> void
+    mezcla(T[] arreglo, T[] auxiliar, int lo, int mitad, int hi, Comparator<T> comparador) {
+	    // Si las mitades ya están en orden no hay nada que mezclar.
+	    if ( comparador.compare(arreglo[mitad-1], arreglo[mitad]) <= 0 )
+		    return;
+
+	    System.arraycopy(arreglo, lo, auxiliar, lo, hi - lo);
+
+	    int i = lo;
+	    int j = mitad;
+	    for ( int k = lo; k < hi; k++ ) {
+		    // Con <= la mitad izquierda gana los empates: es estable.
+		    if ( j >= hi || ( i < mitad && comparador.compare(auxiliar[i], auxiliar[j]) <= 0 ) )
+			    arreglo[k] = auxiliar[i++];
+		    else
+			    arreglo[k] = auxiliar[j++];
+	    }
+    }
+
+    private static <T> void
+    mergeSort(T[] arreglo, T[] auxiliar, int lo, int hi, Comparator<T> comparador) {
+	    if ( hi - lo < 2 )
+		    return;
+
+	    int mitad = lo + ( hi - lo ) / 2;
+	    mergeSort(arreglo, auxiliar, lo, mitad, comparador);
+	    mergeSort(arreglo, auxiliar, mitad, hi, comparador);
+	    mezcla(arreglo, auxiliar, lo, mitad, hi, comparador);
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort. El ordenamiento es estable.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     */
+    public static <T> void
+    mergeSort(T[] arreglo, Comparator<T> comparador) {
+	    mergeSort(arreglo, arreglo.clone(), 0, arreglo.length, comparador);
+    }
+
+    /**
+     * Ordena el intervalo [<code>desde</code>, <code>hasta</code>) del
+     * arreglo recibido usando MergeSort, sin tocar el resto del arreglo. El
+     * ordenamiento es estable.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param desde el índice del primer elemento a ordenar.
+     * @param hasta el índice siguiente al último elemento a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     * @throws IllegalArgumentException si el intervalo no está dentro del
+     *         arreglo.
+     */
+    public static <T> void
+    mergeSort(T[] arreglo, int desde, int hasta, Comparator<T> comparador) {
+	    revisaIntervalo(arreglo, desde, hasta);
+	    // El auxiliar solo necesita cubrir hasta el final del intervalo.
+	    mergeSort(arreglo, Arrays.copyOf(arreglo, hasta), desde, hasta, comparador);
+    }
+
+    /* Revisa que [desde, hasta) sea un intervalo del arreglo. */
+    private static <T> void revisaIntervalo(T[] arreglo, int desde, int hasta) {
+	    if ( desde < 0 || hasta > arreglo.length || desde > hasta )
+		    throw new IllegalArgumentException();
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort. El ordenamiento es estable.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>> void
+    mergeSort(T[] arreglo) {
+        mergeSort(arreglo, (a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort en paralelo sobre un {@link
+     * ForkJoinPool}. El resultado es idéntico al de {@link
+     * #mergeSort(Object[],Comparator)}, y el ordenamiento es estable.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     * @param paralelismo el número de hilos a usar.
+     * @param umbral los intervalos de a lo más este tamaño se ordenan
+     *               secuencialmente.
+     * @throws IllegalArgumentException si <code>paralelismo</code> o
+     *         <code>umbral</code> no son positivos.
+     */
+    public static <T> void
+    mergeSortParalelo(T[] arreglo, Comparator<T> comparador, int paralelismo, int umbral) {
+	    mergeSortParalelo(arreglo, 0, arreglo.length, comparador, paralelismo, umbral);
+    }
+
+    /* Ordena [desde, hasta) en paralelo con MergeSort. */
+    private static <T> void
+    mergeSortParalelo(T[] arreglo, int desde, int hasta, Comparator<T> comparador,
+		      int paralelismo, int umbral) {
+	    if ( paralelismo < 1 || umbral < 1 )
+		    throw new IllegalArgumentException();
+	    revisaIntervalo(arreglo, desde, hasta);
+
+	    ForkJoinPool pool = new ForkJoinPool(paralelismo);
+	    try {
+		    pool.invoke(new MergeSortParalelo<T>(arreglo, Arrays.copyOf(arreglo, hasta),
+							 desde, hasta, comparador, umbral));
+	    } finally {
+		    pool.shutdown();
+	    }
+    }
+
+    /**
+     * Ordena el intervalo [<code>desde</code>, <code>hasta</code>) del
+     * arreglo recibido usando MergeSort en paralelo, con {@link
+     * #UMBRAL_PARALELO} como umbral. El resultado es idéntico al de {@link
+     * #mergeSort(Object[],int,int,Comparator)}.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param desde el índice del primer elemento a ordenar.
+     * @param hasta el índice siguiente al último elemento a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     * @param paralelismo el número de hilos a usar.
+     * @throws IllegalArgumentException si el intervalo no está dentro del
+     *         arreglo o <code>paralelismo</code> no es positivo.
+     */
+    public static <T> void
+    mergeSortParalelo(T[] arreglo, int desde, int hasta, Comparator<T> comparador,
+		      int paralelismo) {
+	    mergeSortParalelo(arreglo, desde, hasta, comparador, paralelismo, UMBRAL_PARALELO);
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort en paralelo, con {@link
+     * #UMBRAL_PARALELO} como umbral.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     * @param paralelismo el número de hilos a usar.
+     * @throws IllegalArgumentException si <code>paralelismo</code> no es
+     *         positivo.
+     */
+    public static <T> void
+    mergeSortParalelo(T[] arreglo, Comparator<T> comparador, int paralelismo) {
+	    mergeSortParalelo(arreglo, comparador, paralelismo, UMBRAL_PARALELO);
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort en paralelo, con tantos hilos
+     * como procesadores haya disponibles.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>> void
+    mergeSortParalelo(T[] arreglo) {
+        mergeSortParalelo(arreglo, (a, b) -> a.compareTo(b),
+			  Runtime.getRuntime().availableProcessors());
+    }
+
     /**
      * Ordena el arreglo recibido usando SelectionSort.
      * @param <T> tipo del que puede ser el arreglo.
@@ -0,0 +1,223 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para colas genéricas respaldadas por un arreglo circular.</p>
+ *
+ * <p>A diferencia de {@link Cola}, meter un elemento no crea un nodo: los
+ * elementos viven en un arreglo que se usa como anillo, y el arreglo solo
+ * crece cuando se llena. Una cola que se llena y se vacía una y otra vez no
+ * crea ningún objeto después de alcanzar su tamaño máximo. {@link #meteTodos}
+ * y {@link #sacaHasta} copian bloques del arreglo en lugar de mover los
+ * elementos uno por uno.</p>
+ *
+ * <p>Las colas arreglo no aceptan a <code>null</code> como elemento.</p>
+ *
+ * @param <T> El tipo de los elementos de la cola.
+ */
+public class ColaArreglo<T> extends MeteSaca<T> {
+
+    /* Capacidad inicial por omisión. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /* El arreglo circular con los elementos. */
+    private T[] arreglo;
+    /* El índice del primer elemento de la cola. */
+    private int inicio;
+    /* Número de elementos en la cola. */
+    private int elementos;
+
+    /**
+     * Construye una cola arreglo vacía.
+     */
+    public ColaArreglo() {
+	    this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Construye una cola arreglo vacía con la capacidad dada.
+     * @param capacidad el número de elementos que caben sin crecer el arreglo.
+     * @throws IllegalArgumentException si <code>capacidad</code> no es
+     *         positiva.
+     */
+    @SuppressWarnings("unchecked") public ColaArreglo(int capacidad) {
+	    if ( capacidad < 1 )
+		    throw new IllegalArgumentException();
+	    arreglo = (T[])new Object[capacidad];
+    }
+
+    /* Regresa el índice en el arreglo del i-ésimo elemento de la cola. */
+    private int indice(int i) {
+	    int j = inicio + i;
+	    return ( j >= arreglo.length ) ? j - arreglo.length : j;
+    }
+
+    /* Crece el arreglo para que quepan al menos capacidad elementos, dejando
+     * el primer elemento en el índice 0. */
+    @SuppressWarnings("unchecked") private void aseguraCapacidad(int capacidad) {
+	    if ( capacidad <= arreglo.length )
+		    return;
+
+	    // Crecemos a la mitad más para que meter sea O(1) amortizado.
+	    int nueva = Math.max(capacidad, arreglo.length + ( arreglo.length >> 1 ) + 1);
+	    if ( nueva < 0 )
+		    nueva = Integer.MAX_VALUE - 8;
+	    T[] a = (T[])new Object[nueva];
+	    int primera = Math.min(elementos, arreglo.length - inicio);
+	    System.arraycopy(arreglo, inicio, a, 0, primera);
+	    System.arraycopy(arreglo, 0, a, primera, elementos - primera);
+	    arreglo = a;
+	    inicio = 0;
+    }
+
+    /**
+     * Agrega un elemento al final de la cola.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void mete(T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+
+	    aseguraCapacidad(elementos + 1);
+	    arreglo[indice(elementos)] = elemento;
+	    elementos++;
+    }
+
+    /**
+     * Agrega todos los elementos del arreglo al final de la cola, en orden.
+     * @param elementos los elementos a agregar.
+     * @throws IllegalArgumentException si algún elemento es <code>null</code>;
+     *         en ese caso no se agrega ningún elemento.
+     */
+    @Override public void meteTodos(T[] elementos) {
+	    for ( T e : elementos )
+		    if ( e == null )
+			    throw new IllegalArgumentException();
+
+	    aseguraCapacidad(this.elementos + elementos.length);
+	    // El hueco libre puede dar la vuelta al final del arreglo.
+	    int fin = indice(this.elementos);
+	    int primera = Math.min(elementos.length, arreglo.length - fin);
+	    System.arraycopy(elementos, 0, arreglo, fin, primera);
+	    System.arraycopy(elementos, primera, arreglo, 0, elementos.length - primera);
+	    this.elementos += elementos.length;
+    }
+
+    /**
+     * Elimina el primer elemento de la cola y lo regresa.
+     * @return el primer elemento de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public T saca() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    T e = arreglo[inicio];
+	    // Soltamos la referencia para no retener el elemento.
+	    arreglo[inicio] = null;
+	    inicio = indice(1);
+	    elementos--;
+	    return e;
+    }
+
+    /**
+     * Saca hasta <code>n</code> elementos del inicio de la cola, en orden, y
+     * los guarda al inicio del arreglo recibido.
+     * @param destino el arreglo donde se guardan los elementos sacados.
+     * @param n el número máximo de elementos a sacar.
+     * @return el número de elementos sacados; es menor que <code>n</code> si
+     *         la cola se vació antes.
+     * @throws IllegalArgumentException si <code>n</code> es negativo o mayor
+     *         que la longitud de <code>destino</code>.
+     */
+    @Override public int sacaHasta(T[] destino, int n) {
+	    if ( n < 0 || n > destino.length )
+		    throw new IllegalArgumentException();
+
+	    int m = Math.min(n, elementos);
+	    int primera = Math.min(m, arreglo.length - inicio);
+	    System.arraycopy(arreglo, inicio, destino, 0, primera);
+	    System.arraycopy(arreglo, 0, destino, primera, m - primera);
+	    Arrays.fill(arreglo, inicio, inicio + primera, null);
+	    Arrays.fill(arreglo, 0, m - primera, null);
+	    inicio = indice(m);
+	    elementos -= m;
+	    return m;
+    }
+
+    /**
+     * Nos permite ver el primer elemento de la cola, sin sacarlo.
+     * @return el primer elemento de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public T mira() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    return arreglo[inicio];
+    }
+
+    /**
+     * Nos dice si la cola está vacía.
+     * @return <code>true</code> si la cola no tiene elementos,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+	    return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public int getElementos() {
+	    return elementos;
+    }
+
+    /**
+     * Regresa una representación en cadena de la cola, en el mismo formato
+     * que {@link Cola#toString}.
+     * @return una representación en cadena de la cola.
+     */
+    @Override public String toString() {
+	    StringBuilder sb = new StringBuilder();
+	    for ( int i = 0; i < elementos; i++ )
+		    sb.append(arreglo[indice(i)]).append(',');
+	    return sb.toString();
+    }
+
+    /**
+     * Compara la cola con un objeto.
+     * @param object el objeto con el que queremos comparar la cola.
+     * @return <code>true</code> si el objeto recibido es una cola arreglo con
+     *         los mismos elementos en el mismo orden; <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean equals(Object object) {
+	    if ( object == null || getClass() != object.getClass() )
+		    return false;
+	    @SuppressWarnings("unchecked") ColaArreglo<T> c = (ColaArreglo<T>)object;
+	    if ( elementos != c.elementos )
+		    return false;
+	    for ( int i = 0; i < elementos; i++ )
+		    if ( !arreglo[indice(i)].equals(c.arreglo[c.indice(i)]) )
+			    return false;
+	    return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la cola, consistente con {@link
+     * #equals}: depende de los elementos y de su orden.
+     * @return un código de dispersión para la cola.
+     */
+    @Override public int hashCode() {
+	    int h = 1;
+	    for ( int i = 0; i < elementos; i++ )
+		    h = 31 * h + arreglo[indice(i)].hashCode();
+	    return h;
+    }
+}
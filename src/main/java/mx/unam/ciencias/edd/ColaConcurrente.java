@@ -0,0 +1,357 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Clase para colas genéricas acotadas que se pueden compartir entre
+ * varios hilos que meten y varios hilos que sacan.</p>
+ *
+ * <p>Los elementos viven en un arreglo circular de capacidad fija. Cada
+ * casilla tiene un número de secuencia que dice si está libre o llena para la
+ * vuelta actual del anillo; meter y sacar solo reservan su posición con una
+ * comparación e intercambio atómicos. El candado solo se toma para dormir a
+ * un hilo que espera, o para despertarlo.</p>
+ *
+ * <p>Hay tres formas de meter y de sacar:</p>
+ * <ul>
+ *   <li>{@link #mete} y {@link #saca}, con la semántica de {@link Cola}:
+ *       lanzan una excepción si la cola está llena o vacía.</li>
+ *   <li>{@link #intentaMeter} e {@link #intentaSacar}, que no bloquean y nos
+ *       dicen si lo lograron.</li>
+ *   <li>{@link #meteEsperando} y {@link #sacaEsperando}, que bloquean al hilo
+ *       mientras la cola esté llena o vacía. Así un productor más rápido que
+ *       sus consumidores se frena solo en lugar de llenar la memoria.</li>
+ * </ul>
+ *
+ * <p>Los elementos salen en el orden en que se reservaron sus posiciones.
+ * {@link #mira}, {@link #esVacia} y {@link #getElementos} regresan una
+ * fotografía que otros hilos pueden cambiar en cualquier momento.</p>
+ *
+ * <p>Las colas concurrentes no aceptan a <code>null</code> como
+ * elemento.</p>
+ *
+ * @param <T> El tipo de los elementos de la cola.
+ */
+public class ColaConcurrente<T> {
+
+    /* Iteraciones que un hilo bloqueante reintenta antes de dormirse. */
+    private static final int GIROS = 64;
+
+    /* Las casillas del anillo. */
+    private T[] casillas;
+    /*
+     * El número de secuencia de cada casilla. Si es igual a la posición que
+     * toca meter, la casilla está libre; si es uno más que la posición que
+     * toca sacar, la casilla está llena. Escribir la secuencia publica el
+     * contenido de la casilla a los demás hilos.
+     */
+    private AtomicLongArray secuencias;
+    /* La capacidad menos uno; la capacidad es una potencia de dos. */
+    private int mascara;
+    /* La siguiente posición a meter y la siguiente a sacar. */
+    private AtomicLong fin;
+    private AtomicLong inicio;
+
+    /* El candado y las condiciones para los hilos que esperan. */
+    private ReentrantLock candado;
+    private Condition noLlena;
+    private Condition noVacia;
+    /* Cuántos hilos esperan espacio y cuántos esperan elementos. */
+    private AtomicInteger esperanMeter;
+    private AtomicInteger esperanSacar;
+
+    /**
+     * Construye una cola concurrente vacía. La capacidad se redondea a la
+     * siguiente potencia de dos.
+     * @param capacidad el número mínimo de elementos que caben en la cola.
+     * @throws IllegalArgumentException si <code>capacidad</code> no es
+     *         positiva o es mayor que 2<sup>30</sup>.
+     */
+    @SuppressWarnings("unchecked") public ColaConcurrente(int capacidad) {
+	    if ( capacidad < 1 || capacidad > 1 << 30 )
+		    throw new IllegalArgumentException();
+
+	    int n = Integer.highestOneBit(capacidad);
+	    if ( n < capacidad )
+		    n <<= 1;
+	    casillas = (T[])new Object[n];
+	    secuencias = new AtomicLongArray(n);
+	    for ( int i = 0; i < n; i++ )
+		    secuencias.set(i, i);
+	    mascara = n - 1;
+	    fin = new AtomicLong();
+	    inicio = new AtomicLong();
+
+	    candado = new ReentrantLock();
+	    noLlena = candado.newCondition();
+	    noVacia = candado.newCondition();
+	    esperanMeter = new AtomicInteger();
+	    esperanSacar = new AtomicInteger();
+    }
+
+    /**
+     * Regresa la capacidad de la cola.
+     * @return el número de elementos que caben en la cola.
+     */
+    public int getCapacidad() {
+	    return casillas.length;
+    }
+
+    /**
+     * Intenta agregar un elemento al final de la cola, sin bloquear.
+     * @param elemento el elemento a agregar.
+     * @return <code>true</code> si el elemento se agregó, <code>false</code>
+     *         si la cola estaba llena.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public boolean intentaMeter(T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+
+	    long p = fin.get();
+	    while ( true ) {
+		    int i = (int)p & mascara;
+		    long d = secuencias.get(i) - p;
+		    if ( d == 0 ) {
+			    if ( fin.compareAndSet(p, p + 1) ) {
+				    casillas[i] = elemento;
+				    secuencias.set(i, p + 1);
+				    break;
+			    }
+			    p = fin.get();
+		    } else if ( d < 0 ) {
+			    // La casilla todavía tiene el elemento de la vuelta anterior.
+			    return false;
+		    } else {
+			    // Otro hilo ya reservó p.
+			    p = fin.get();
+		    }
+	    }
+
+	    if ( esperanSacar.get() > 0 )
+		    despierta(noVacia);
+	    return true;
+    }
+
+    /**
+     * Intenta eliminar el primer elemento de la cola y regresarlo, sin
+     * bloquear.
+     * @return el primer elemento de la cola, o <code>null</code> si la cola
+     *         estaba vacía.
+     */
+    public T intentaSacar() {
+	    T e;
+	    long p = inicio.get();
+	    while ( true ) {
+		    int i = (int)p & mascara;
+		    long d = secuencias.get(i) - ( p + 1 );
+		    if ( d == 0 ) {
+			    if ( inicio.compareAndSet(p, p + 1) ) {
+				    e = casillas[i];
+				    casillas[i] = null;
+				    // La casilla queda libre para la siguiente vuelta.
+				    secuencias.set(i, p + casillas.length);
+				    break;
+			    }
+			    p = inicio.get();
+		    } else if ( d < 0 ) {
+			    return null;
+		    } else {
+			    p = inicio.get();
+		    }
+	    }
+
+	    if ( esperanMeter.get() > 0 )
+		    despierta(noLlena);
+	    return e;
+    }
+
+    /* Despierta a los hilos que esperan en la condición. */
+    private void despierta(Condition condicion) {
+	    candado.lock();
+	    try {
+		    condicion.signalAll();
+	    } finally {
+		    candado.unlock();
+	    }
+    }
+
+    /**
+     * Agrega un elemento al final de la cola, sin bloquear.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     * @throws IllegalStateException si la cola está llena.
+     */
+    public void mete(T elemento) {
+	    if ( !intentaMeter(elemento) )
+		    throw new IllegalStateException();
+    }
+
+    /**
+     * Elimina el primer elemento de la cola y lo regresa, sin bloquear.
+     * @return el primer elemento de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    public T saca() {
+	    T e = intentaSacar();
+	    if ( e == null )
+		    throw new NoSuchElementException();
+	    return e;
+    }
+
+    /**
+     * Agrega un elemento al final de la cola, esperando mientras la cola esté
+     * llena.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     * @throws InterruptedException si el hilo se interrumpe mientras espera;
+     *         en ese caso el elemento no se agrega.
+     */
+    public void meteEsperando(T elemento) throws InterruptedException {
+	    intentaMeter(elemento, -1, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Elimina el primer elemento de la cola y lo regresa, esperando mientras
+     * la cola esté vacía.
+     * @return el primer elemento de la cola.
+     * @throws InterruptedException si el hilo se interrumpe mientras espera;
+     *         en ese caso no se saca ningún elemento.
+     */
+    public T sacaEsperando() throws InterruptedException {
+	    return intentaSacar(-1, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Intenta agregar un elemento al final de la cola, esperando a lo más el
+     * tiempo dado mientras la cola esté llena.
+     * @param elemento el elemento a agregar.
+     * @param tiempo el tiempo máximo a esperar; si es negativo se espera sin
+     *        límite.
+     * @param unidad la unidad de <code>tiempo</code>.
+     * @return <code>true</code> si el elemento se agregó, <code>false</code>
+     *         si se acabó el tiempo.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     * @throws InterruptedException si el hilo se interrumpe mientras espera;
+     *         en ese caso el elemento no se agrega.
+     */
+    public boolean intentaMeter(T elemento, long tiempo, TimeUnit unidad)
+	    throws InterruptedException {
+	    for ( int i = 0; i < GIROS; i++ ) {
+		    if ( intentaMeter(elemento) )
+			    return true;
+		    Thread.onSpinWait();
+	    }
+
+	    long nanos = unidad.toNanos(tiempo);
+	    candado.lockInterruptibly();
+	    esperanMeter.incrementAndGet();
+	    try {
+		    // Anunciamos la espera antes de volver a intentar; así quien
+		    // saque después de nuestro intento ve el contador y nos despierta.
+		    while ( !intentaMeter(elemento) ) {
+			    if ( tiempo < 0 )
+				    noLlena.await();
+			    else if ( nanos <= 0 )
+				    return false;
+			    else
+				    nanos = noLlena.awaitNanos(nanos);
+		    }
+		    return true;
+	    } finally {
+		    esperanMeter.decrementAndGet();
+		    candado.unlock();
+	    }
+    }
+
+    /**
+     * Intenta eliminar el primer elemento de la cola y regresarlo, esperando
+     * a lo más el tiempo dado mientras la cola esté vacía.
+     * @param tiempo el tiempo máximo a esperar; si es negativo se espera sin
+     *        límite.
+     * @param unidad la unidad de <code>tiempo</code>.
+     * @return el primer elemento de la cola, o <code>null</code> si se acabó
+     *         el tiempo.
+     * @throws InterruptedException si el hilo se interrumpe mientras espera;
+     *         en ese caso no se saca ningún elemento.
+     */
+    public T intentaSacar(long tiempo, TimeUnit unidad) throws InterruptedException {
+	    for ( int i = 0; i < GIROS; i++ ) {
+		    T e = intentaSacar();
+		    if ( e != null )
+			    return e;
+		    Thread.onSpinWait();
+	    }
+
+	    long nanos = unidad.toNanos(tiempo);
+	    candado.lockInterruptibly();
+	    esperanSacar.incrementAndGet();
+	    try {
+		    T e;
+		    while ( (e = intentaSacar()) == null ) {
+			    if ( tiempo < 0 )
+				    noVacia.await();
+			    else if ( nanos <= 0 )
+				    return null;
+			    else
+				    nanos = noVacia.awaitNanos(nanos);
+		    }
+		    return e;
+	    } finally {
+		    esperanSacar.decrementAndGet();
+		    candado.unlock();
+	    }
+    }
+
+    /**
+     * Nos permite ver el primer elemento de la cola, sin sacarlo. Otro hilo
+     * puede sacarlo en cualquier momento.
+     * @return el primer elemento de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    public T mira() {
+	    while ( true ) {
+		    long p = inicio.get();
+		    int i = (int)p & mascara;
+		    long d = secuencias.get(i) - ( p + 1 );
+		    if ( d < 0 )
+			    throw new NoSuchElementException();
+		    if ( d == 0 ) {
+			    T e = casillas[i];
+			    // Si nadie reservó p mientras leíamos, e es su elemento.
+			    if ( e != null && inicio.get() == p )
+				    return e;
+		    }
+	    }
+    }
+
+    /**
+     * Nos dice si la cola está vacía.
+     * @return <code>true</code> si la cola no tiene elementos,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+	    return getElementos() == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola. Cuenta también los elementos
+     * que otro hilo está metiendo o sacando en ese momento.
+     * @return el número de elementos en la cola.
+     */
+    public int getElementos() {
+	    long i = inicio.get();
+	    long f = fin.get();
+	    return (int)Math.max(0, Math.min(f - i, casillas.length));
+    }
+}
@@ -0,0 +1,156 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Comparator;
+
+/**
+ * <p>Índice estático para buscar muchas veces en un arreglo ordenado.</p>
+ *
+ * <p>Los elementos del arreglo se copian en el orden de Eytzinger: el
+ * arreglo se ve como un árbol binario de búsqueda completo guardado por
+ * niveles, con la raíz en la posición 1 y los hijos de la posición
+ * <em>k</em> en 2<em>k</em> y 2<em>k</em>+1. Los primeros niveles, que toda
+ * búsqueda visita, quedan juntos en unas pocas líneas de caché, y cada paso
+ * de la búsqueda solo decide entre dos hijos, sin salir del ciclo antes de
+ * tiempo, así que los saltos son fáciles de predecir.</p>
+ *
+ * <p>Java no tiene una instrucción para precargar memoria, así que {@link
+ * #busca(Object[], int[])} busca varias llaves a la vez, bajando un nivel del
+ * árbol para cada una en cada vuelta: las lecturas de llaves distintas no
+ * dependen entre sí, y el procesador las puede tener en vuelo al mismo
+ * tiempo.</p>
+ *
+ * <p>El índice ocupa un arreglo de referencias y uno de enteros, ambos de
+ * longitud <em>n</em>+1. Si el arreglo original cambia, el índice no se
+ * entera.</p>
+ *
+ * @param <T> El tipo de los elementos del índice.
+ */
+public class IndiceEytzinger<T> {
+
+    /* Llaves que se buscan a la vez en una búsqueda por lotes. */
+    private static final int LOTE = 16;
+
+    /* Los elementos en orden de Eytzinger, a partir de la posición 1. */
+    private T[] arbol;
+    /* El índice en el arreglo original del elemento en cada posición. */
+    private int[] indices;
+    /* El número de elementos. */
+    private int n;
+    /* El número de niveles del árbol. */
+    private int altura;
+    /* El comparador con el que está ordenado el arreglo. */
+    private Comparator<T> comparador;
+
+    /**
+     * Construye un índice para el arreglo recibido, que debe estar ordenado
+     * con el comparador.
+     * @param arreglo el arreglo ordenado.
+     * @param comparador el comparador con el que está ordenado el arreglo.
+     * @throws IllegalArgumentException si el arreglo tiene 2<sup>30</sup>
+     *         elementos o más.
+     */
+    @SuppressWarnings("unchecked") public IndiceEytzinger(T[] arreglo, Comparator<T> comparador) {
+	    if ( arreglo.length >= 1 << 30 )
+		    throw new IllegalArgumentException();
+
+	    n = arreglo.length;
+	    arbol = (T[])new Object[n + 1];
+	    indices = new int[n + 1];
+	    altura = 32 - Integer.numberOfLeadingZeros(n);
+	    this.comparador = comparador;
+	    llena(arreglo, 0, 1);
+    }
+
+    /**
+     * Construye un índice para un arreglo ordenado de elementos comparables.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo ordenado.
+     * @return el índice del arreglo.
+     */
+    public static <T extends Comparable<T>> IndiceEytzinger<T> crea(T[] arreglo) {
+	    return new IndiceEytzinger<T>(arreglo, (a, b) -> a.compareTo(b));
+    }
+
+    /* Llena el subárbol con raíz en k con los elementos del arreglo a partir
+     * de i, en orden; regresa el siguiente índice sin usar. */
+    private int llena(T[] arreglo, int i, int k) {
+	    if ( k > n )
+		    return i;
+	    i = llena(arreglo, i, 2 * k);
+	    arbol[k] = arreglo[i];
+	    indices[k] = i;
+	    return llena(arreglo, i + 1, 2 * k + 1);
+    }
+
+    /* Convierte la posición en la que terminó un descenso en la posición del
+     * primer elemento mayor o igual a la llave, o 0 si no hay. */
+    private static int sucesor(int k) {
+	    // Quitamos los pasos a la derecha del final, y el último a la izquierda.
+	    return k >>> ( Integer.numberOfTrailingZeros(~k) + 1 );
+    }
+
+    /* Regresa el índice original del elemento en la posición k si es igual
+     * a la llave, o -1. */
+    private int resultado(int k, T llave) {
+	    if ( k == 0 || comparador.compare(arbol[k], llave) != 0 )
+		    return -1;
+	    return indices[k];
+    }
+
+    /**
+     * Busca un elemento. Regresa su índice en el arreglo original, o -1 si no
+     * está. Si el arreglo no tiene elementos repetidos, la respuesta es la
+     * misma que la de {@link Arreglos#busquedaBinaria(Object[], Object,
+     * Comparator)}; si los tiene, es el índice del primero de los iguales.
+     * @param llave el elemento a buscar.
+     * @return el índice del elemento en el arreglo original, o -1 si no se
+     *         encuentra.
+     */
+    public int busca(T llave) {
+	    int k = 1;
+	    while ( k <= n )
+		    k = 2 * k + ( comparador.compare(arbol[k], llave) < 0 ? 1 : 0 );
+	    return resultado(sucesor(k), llave);
+    }
+
+    /**
+     * Busca varios elementos a la vez. Para cada <em>i</em>, guarda en
+     * <code>resultados[i]</code> lo que regresaría {@link #busca(Object)}
+     * con <code>llaves[i]</code>.
+     * @param llaves los elementos a buscar.
+     * @param resultados donde se guardan los índices encontrados.
+     * @throws IllegalArgumentException si <code>resultados</code> es más
+     *         corto que <code>llaves</code>.
+     */
+    public void busca(T[] llaves, int[] resultados) {
+	    if ( resultados.length < llaves.length )
+		    throw new IllegalArgumentException();
+
+	    int[] k = new int[LOTE];
+	    for ( int inicio = 0; inicio < llaves.length; inicio += LOTE ) {
+		    int m = Math.min(LOTE, llaves.length - inicio);
+		    for ( int j = 0; j < m; j++ )
+			    k[j] = 1;
+		    // Todas las llaves bajan un nivel en cada vuelta; las que ya
+		    // salieron del árbol (solo pasa en el último nivel) se quedan.
+		    for ( int nivel = 0; nivel < altura; nivel++ ) {
+			    for ( int j = 0; j < m; j++ ) {
+				    int p = k[j];
+				    if ( p <= n )
+					    k[j] = 2 * p +
+						    ( comparador.compare(arbol[p], llaves[inicio + j]) < 0 ? 1 : 0 );
+			    }
+		    }
+		    for ( int j = 0; j < m; j++ )
+			    resultados[inicio + j] = resultado(sucesor(k[j]), llaves[inicio + j]);
+	    }
+    }
+
+    /**
+     * Regresa el número de elementos del índice.
+     * @return el número de elementos del índice.
+     */
+    public int getElementos() {
+	    return n;
+    }
+}
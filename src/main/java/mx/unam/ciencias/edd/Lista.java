@@ -1,8 +1,12 @@
 package mx.unam.ciencias.edd;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * <p>Clase genérica para listas doblemente ligadas.</p>
@@ -13,6 +17,11 @@ import java.util.NoSuchElementException;
  *
  * <p>Las listas no aceptan a <code>null</code> como elemento.</p>
  *
+ * <p>Opcionalmente, la lista puede mantener un índice hash de sus elementos
+ * (ver {@link #activaIndice}), con el que {@link #contiene} y {@link
+ * #elimina} toman tiempo constante esperado en lugar de recorrer la
+ * lista.</p>
+ *
  * @param <T> El tipo de los elementos de la lista.
  */
 public class Lista<T> implements Coleccion<T> {
@@ -92,12 +101,97 @@ public class Lista<T> implements Coleccion<T> {
         }
     }
 
+    /* Clase interna privada para iteradores del último al primer elemento. */
+    private class IteradorInverso implements Iterator<T> {
+        /* El nodo siguiente en el recorrido. */
+        private Nodo siguiente;
+
+        /* Construye un nuevo iterador que empieza en el último elemento. */
+        private IteradorInverso() {
+		siguiente = rabo;
+        }
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+		return siguiente != null;
+        }
+
+        /* Nos da el elemento siguiente, que es el anterior en la lista. */
+        @Override public T next() {
+		if ( siguiente == null )
+			throw new NoSuchElementException();
+		T e = siguiente.elemento;
+		siguiente = siguiente.anterior;
+		return e;
+        }
+    }
+
+    /* Tarea para ordenar en paralelo una cadena de nodos. */
+    private class OrdenaParalelo extends RecursiveTask<Nodo> {
+        /* Versión de la clase para la serialización. */
+        private static final long serialVersionUID = 1L;
+
+        /* El primer nodo de la cadena. */
+        private Nodo inicio;
+        /* El número de nodos de la cadena. */
+        private int n;
+        /* El comparador para ordenar. */
+        private Comparator<T> comparador;
+        /* Cadenas de a lo más este tamaño se ordenan secuencialmente. */
+        private int umbral;
+
+        /* Construye una tarea para los n nodos que empiezan en inicio. */
+        private OrdenaParalelo(Nodo inicio, int n, Comparator<T> comparador, int umbral) {
+		this.inicio = inicio;
+		this.n = n;
+		this.comparador = comparador;
+		this.umbral = umbral;
+        }
+
+        /* Ordena las dos mitades en paralelo y las mezcla. */
+        @Override protected Nodo compute() {
+		if ( n <= umbral )
+			return ordena(inicio, n, comparador);
+
+		// Las mitades son disjuntas, así que las tareas no comparten nodos.
+		int mitad = n / 2;
+		Nodo medio = inicio;
+		for ( int i = 0; i < mitad; i++ )
+			medio = medio.siguiente;
+
+		OrdenaParalelo left = new OrdenaParalelo(inicio, mitad, comparador, umbral);
+		OrdenaParalelo right = new OrdenaParalelo(medio, n - mitad, comparador, umbral);
+		left.fork();
+		Nodo r = right.compute();
+		Nodo l = left.join();
+
+		return mezcla(l, r, comparador);
+        }
+    }
+
+    /** Tamaño por omisión a partir del cual los ordenamientos paralelos ya no
+     *  dividen el trabajo. */
+    public static final int UMBRAL_PARALELO = 1 << 13;
+
     /* Primer elemento de la lista. */
     private Nodo cabeza;
     /* Último elemento de la lista. */
     private Nodo rabo;
     /* Número de elementos en la lista. */
     private int longitud;
+    /*
+     * El último nodo al que se llegó por índice, y su índice. Los recorridos
+     * por índice empiezan en el más cercano de la cabeza, el rabo y este nodo,
+     * así que recorrer la lista con get(i) en orden cuesta O(1) por elemento.
+     * Es null si no se conoce el índice de ningún nodo.
+     */
+    private Nodo dedo;
+    private int indiceDedo;
+    /*
+     * El índice hash opcional: para cada elemento distinto, sus nodos en el
+     * orden de la lista. Es null si el índice no está activo.
+     */
+    private HashMap<T, ArrayList<Nodo>> indice;
 
     /**
      * Regresa la longitud de la lista. El método es idéntico a {@link
@@ -148,6 +242,8 @@ public class Lista<T> implements Coleccion<T> {
 	}
 
 	longitud++;
+	if ( indice != null )
+		nodosDe(elemento).add(n);
     }
 
     /**
@@ -182,19 +278,37 @@ public class Lista<T> implements Coleccion<T> {
 	    }
 
 	    longitud++;
+	    // Todos los índices se recorren uno.
+	    indiceDedo++;
+	    if ( indice != null )
+		    nodosDe(elemento).add(0, n);
     }
 
+    /* Regresa el nodo en el índice i, que debe ser válido, empezando en el
+     * más cercano de la cabeza, el rabo y el dedo; el dedo queda en él. */
     private Nodo getIEsimoNodo(int i) {
+	    Nodo n = cabeza;
 	    int index = 0;
+	    if ( longitud - 1 - i < i ) {
+		    n = rabo;
+		    index = longitud - 1;
+	    }
+	    if ( dedo != null && Math.abs(indiceDedo - i) < Math.abs(index - i) ) {
+		    n = dedo;
+		    index = indiceDedo;
+	    }
 
-	    Nodo n = cabeza;
-	    while ( n != null ) {
-		    if ( index ==  i ) 
-			    return n;
-	    	    n = n.siguiente;
+	    while ( index < i ) {
+		    n = n.siguiente;
 		    index++;
 	    }
+	    while ( index > i ) {
+		    n = n.anterior;
+		    index--;
+	    }
 
+	    dedo = n;
+	    indiceDedo = i;
 	    return n;
     }
     /**
@@ -232,10 +346,18 @@ public class Lista<T> implements Coleccion<T> {
 		    s.anterior = n;
 
 		    longitud++;
+		    dedo = n;
+		    if ( indice != null )
+			    indexaInsertado(n);
 	    }
     }
 
     private Nodo buscarNodo(T elemento) {
+	    if ( indice != null ) {
+		    ArrayList<Nodo> nodos = indice.get(elemento);
+		    return nodos == null ? null : nodos.get(0);
+	    }
+
 	    Nodo n =  cabeza;
 
 	    while ( n != null ) {
@@ -248,6 +370,10 @@ public class Lista<T> implements Coleccion<T> {
     }
 
     private void eliminaNodo(Nodo n) {
+	    // No sabemos el índice del nodo, así que el dedo ya no es confiable.
+	    dedo = null;
+	    if ( indice != null )
+		    desindexa(n);
 	    if ( rabo == cabeza ) {
 		    rabo = null;
 		    cabeza = null;
@@ -272,7 +398,9 @@ public class Lista<T> implements Coleccion<T> {
 
     /**
      * Elimina un elemento de la lista. Si el elemento no está contenido en la
-     * lista, el método no la modifica.
+     * lista, el método no la modifica. Si el elemento aparece varias veces, se
+     * elimina la primera. Con el índice hash activo toma tiempo constante
+     * esperado, más el número de apariciones del elemento.
      * @param elemento el elemento a eliminar.
      */
     @Override public void elimina(T elemento) {
@@ -317,7 +445,8 @@ public class Lista<T> implements Coleccion<T> {
     }
 
     /**
-     * Nos dice si un elemento está en la lista.
+     * Nos dice si un elemento está en la lista. Con el índice hash activo toma
+     * tiempo constante esperado.
      * @param elemento el elemento que queremos saber si está en la lista.
      * @return <code>true</code> si <code>elemento</code> está en la lista,
      *         <code>false</code> en otro caso.
@@ -366,6 +495,9 @@ public class Lista<T> implements Coleccion<T> {
     	cabeza = null;
 	rabo = null;
 	longitud = 0;
+	dedo = null;
+	if ( indice != null )
+		indice.clear();
     }
 
     /**
@@ -393,7 +525,10 @@ public class Lista<T> implements Coleccion<T> {
     }
 
     /**
-     * Regresa el <em>i</em>-ésimo elemento de la lista.
+     * Regresa el <em>i</em>-ésimo elemento de la lista. La lista recuerda el
+     * último nodo al que se llegó por índice, y empieza a caminar desde el más
+     * cercano de ese nodo y los extremos; recorrer la lista en orden con este
+     * método cuesta O(1) por elemento.
      * @param i el índice del elemento que queremos.
      * @return el <em>i</em>-ésimo elemento de la lista.
      * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
@@ -407,18 +542,30 @@ public class Lista<T> implements Coleccion<T> {
     }
 
     /**
-     * Regresa el índice del elemento recibido en la lista.
+     * Regresa el índice del elemento recibido en la lista. Con el índice hash
+     * activo, si el elemento no está la respuesta toma tiempo constante
+     * esperado; si está, el índice se cuenta caminando hacia atrás desde su
+     * nodo, sin comparar elementos.
      * @param elemento el elemento del que se busca el índice.
      * @return el índice del elemento recibido en la lista, o -1 si el elemento
      *         no está contenido en la lista.
      */
     public int indiceDe(T elemento) {
+	    if ( indice != null ) {
+		    Nodo n = buscarNodo(elemento);
+		    return n == null ? -1 : indiceDeNodo(n);
+	    }
+
 	    int index = 0;
 
 	    Nodo n = cabeza;
 	    while ( n != null ) {
-		    if ( n.elemento.equals(elemento) ) 
+		    if ( n.elemento.equals(elemento) ) {
+			    // Así un get o inserta en este índice no vuelve a recorrer.
+			    dedo = n;
+			    indiceDedo = index;
 			    return index;
+		    }
 		    n = n.siguiente;
 		    index++;
 	    }
@@ -426,6 +573,117 @@ public class Lista<T> implements Coleccion<T> {
 	    return -1;
     }
 
+    /* Regresa los nodos de un elemento en el índice, creándolos si hace falta. */
+    private ArrayList<Nodo> nodosDe(T elemento) {
+	    ArrayList<Nodo> nodos = indice.get(elemento);
+	    if ( nodos == null ) {
+		    nodos = new ArrayList<Nodo>(1);
+		    indice.put(elemento, nodos);
+	    }
+	    return nodos;
+    }
+
+    /* Agrega al índice un nodo insertado en medio de la lista. Si el elemento
+     * ya estaba, busca hacia adelante la siguiente aparición para dejar los
+     * nodos en el orden de la lista. */
+    private void indexaInsertado(Nodo n) {
+	    ArrayList<Nodo> nodos = nodosDe(n.elemento);
+	    if ( nodos.isEmpty() ) {
+		    nodos.add(n);
+		    return;
+	    }
+
+	    Nodo s = n.siguiente;
+	    while ( s != null && !s.elemento.equals(n.elemento) )
+		    s = s.siguiente;
+	    if ( s == null ) {
+		    nodos.add(n);
+		    return;
+	    }
+	    for ( int i = 0; i < nodos.size(); i++ ) {
+		    if ( nodos.get(i) == s ) {
+			    nodos.add(i, n);
+			    return;
+		    }
+	    }
+    }
+
+    /* Quita un nodo del índice. */
+    private void desindexa(Nodo n) {
+	    ArrayList<Nodo> nodos = indice.get(n.elemento);
+	    for ( int i = 0; i < nodos.size(); i++ ) {
+		    if ( nodos.get(i) == n ) {
+			    nodos.remove(i);
+			    break;
+		    }
+	    }
+	    if ( nodos.isEmpty() )
+		    indice.remove(n.elemento);
+    }
+
+    /* Vuelve a llenar el índice recorriendo la lista. */
+    private void reconstruyeIndice() {
+	    indice.clear();
+	    for ( Nodo n = cabeza; n != null; n = n.siguiente )
+		    nodosDe(n.elemento).add(n);
+    }
+
+    /* Cuenta el índice de un nodo caminando hacia atrás hasta la cabeza o el
+     * dedo. */
+    private int indiceDeNodo(Nodo n) {
+	    int pasos = 0;
+	    Nodo m = n;
+	    while ( m != cabeza && m != dedo ) {
+		    m = m.anterior;
+		    pasos++;
+	    }
+	    int index = ( m == cabeza ) ? pasos : indiceDedo + pasos;
+	    dedo = n;
+	    indiceDedo = index;
+	    return index;
+    }
+
+    /**
+     * Activa el índice hash de la lista, construyéndolo con los elementos que
+     * ya tiene. Mientras esté activo, el índice se mantiene al día al agregar,
+     * insertar, eliminar, limpiar y ordenar, y {@link #contiene}, {@link
+     * #elimina} e {@link #indiceDe} lo usan en lugar de recorrer la lista.
+     * Si ya estaba activo, el método no hace nada.
+     *
+     * <p>Los elementos deben tener {@link Object#hashCode} consistente con
+     * {@link Object#equals}, y no deben cambiar mientras estén en la lista. El
+     * índice cuesta, en una JVM de 64 bits con apuntadores comprimidos, unos
+     * 90 bytes por elemento distinto (la entrada del {@link HashMap}, su
+     * lugar en la tabla y una {@link ArrayList} con sus nodos) y 4 bytes más
+     * por cada aparición repetida; con cadenas de 20 caracteres eso es más o
+     * menos lo mismo que ocupan las cadenas y los nodos de la lista. Insertar
+     * en medio un elemento que ya estaba cuesta además recorrer la lista hasta
+     * su siguiente aparición. <code>ListaBenchmark</code>, en el perfil
+     * <code>jmh</code>, mide el costo del índice y sus búsquedas.</p>
+     */
+    public void activaIndice() {
+	    if ( indice != null )
+		    return;
+	    indice = new HashMap<T, ArrayList<Nodo>>();
+	    reconstruyeIndice();
+    }
+
+    /**
+     * Desactiva el índice hash de la lista y libera su memoria.
+     */
+    public void desactivaIndice() {
+	    indice = null;
+    }
+
+    /**
+     * Nos dice si el índice hash de la lista está activo.
+     * @return <code>true</code> si el índice hash está activo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean indiceActivo() {
+	    return indice != null;
+    }
+
     /**
      * Regresa una representación en cadena de la lista.
      * @return una representación en cadena de la lista.
@@ -489,75 +747,199 @@ public class Lista<T> implements Coleccion<T> {
         return new Iterador();
     }
 
-    private Lista<T> merge(Lista<T> left, Lista<T> right, Comparator<T> comparador) {
-	    Lista<T> juntas = new Lista<T>();
-
-	    Nodo l = left.cabeza;
-	    Nodo r = right.cabeza;
+    /**
+     * Regresa un iterador para recorrer la lista del último al primer
+     * elemento. A diferencia de {@link #reversa}, no copia la lista.
+     * @return un iterador para recorrer la lista del último al primer
+     *         elemento.
+     */
+    public Iterator<T> iteradorInverso() {
+        return new IteradorInverso();
+    }
 
-	    while ( l != null && r != null ) {
-		    if ( comparador.compare( l.elemento, r.elemento ) <= 0 ) {
-			    juntas.agrega(l.elemento);
-			    l = l.siguiente;
-		    } else { 
-			    juntas.agrega(r.elemento);
-			    r = r.siguiente;
+    /**
+     * Regresa una vista de la lista en orden inverso, para recorrerla del
+     * último al primer elemento con un <code>for</code>. La vista no copia la
+     * lista: refleja sus cambios.
+     * @return una vista de la lista en orden inverso.
+     */
+    public Iterable<T> vistaInversa() {
+        return this::iteradorInverso;
+    }
+
+    /* Mezcla dos cadenas ordenadas de nodos ligados por siguiente, sin copiarlos. */
+    private Nodo mezcla(Nodo a, Nodo b, Comparator<T> comparador) {
+	    Nodo inicio = null;
+	    Nodo fin = null;
+
+	    while ( a != null && b != null ) {
+		    Nodo m;
+		    // Con <= el nodo de la izquierda gana los empates, asi el
+		    // ordenamiento es estable.
+		    if ( comparador.compare(a.elemento, b.elemento) <= 0 ) {
+			    m = a;
+			    a = a.siguiente;
+		    } else {
+			    m = b;
+			    b = b.siguiente;
 		    }
-	    }
 
-	    while ( l != null ) { 
-		    juntas.agrega(l.elemento);
-		    l = l.siguiente;
+		    if ( fin == null )
+			    inicio = m;
+		    else
+			    fin.siguiente = m;
+		    fin = m;
 	    }
 
-	    while ( r != null ) {
-		    juntas.agrega(r.elemento);
-		    r = r.siguiente;
+	    fin.siguiente = ( a != null ) ? a : b;
+
+	    return inicio;
+    }
+
+    /* Ordena los n nodos que empiezan en inicio; regresa la cabeza de la
+     * cadena ordenada, terminada en null. Solo usa los apuntadores siguiente. */
+    private Nodo ordena(Nodo inicio, int n, Comparator<T> comparador) {
+	    // Caso base de la recursion, un solo nodo ya esta ordenado.
+	    if ( n == 1 ) {
+		    inicio.siguiente = null;
+		    return inicio;
 	    }
 
-	    return juntas;
+	    // Buscamos la mitad antes de que la recursion corte la cadena.
+	    int mitad = n / 2;
+	    Nodo medio = inicio;
+	    for ( int i = 0; i < mitad; i++ )
+		    medio = medio.siguiente;
+
+	    Nodo left = ordena(inicio, mitad, comparador);
+	    Nodo right = ordena(medio, n - mitad, comparador);
+
+	    return mezcla(left, right, comparador);
     }
 
-    private Lista<T> mergeSort(Comparator<T> comparador, Lista<T> lista) {
-	    // Caso base de la recursion, si la lista es vacio o tiene un solo elemento
-	    // esta sera trivialmente ordenada.
-	    if ( lista.longitud <= 1 ) {
-		    return lista;
+    /* Recupera los apuntadores anterior y el rabo a partir de la cabeza. */
+    private void religaAnteriores() {
+	    // Los nodos cambiaron de lugar.
+	    dedo = null;
+	    Nodo a = null;
+	    for ( Nodo n = cabeza; n != null; n = n.siguiente ) {
+		    n.anterior = a;
+		    a = n;
 	    }
+	    rabo = a;
+	    // El orden entre elementos iguales pudo cambiar.
+	    if ( indice != null )
+		    reconstruyeIndice();
+    }
 
-	    Lista<T> right = new Lista<T>();
-	    Lista<T> left = new Lista<T>();
-
-	    // Partimos en dos nuestra lista.
-	    Nodo n = lista.cabeza;
-	    for ( int i = 0; i < lista.longitud; i++ ) {
-		    if ( i < ( lista.longitud / 2 ) ) {
-			    left.agrega(n.elemento);
-			    n = n.siguiente;
-		    } else { 
-			    right.agrega(n.elemento);
-			    n = n.siguiente;
-		    }
+    /**
+     * Ordena la lista, sin copiarla. Los nodos existentes se vuelven a ligar
+     * en orden, así que el método no crea nodos nuevos. El ordenamiento es
+     * estable.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     */
+    public void ordena(Comparator<T> comparador) {
+	    if ( longitud <= 1 )
+		    return;
+
+	    cabeza = ordena(cabeza, longitud, comparador);
+	    religaAnteriores();
+    }
+
+    /**
+     * Ordena la lista recibida, sin copiarla. La lista recibida tiene que
+     * contener nada más elementos que implementan la interfaz {@link
+     * Comparable}.
+     * @param <T> tipo del que puede ser la lista.
+     * @param lista la lista que se ordenará.
+     */
+    public static <T extends Comparable<T>>
+    void ordena(Lista<T> lista) {
+        lista.ordena((a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Ordena la lista en paralelo, sin copiarla. Las mitades de la lista se
+     * ordenan en tareas de un {@link ForkJoinPool} hasta llegar al umbral, y
+     * después se mezclan igual que en {@link #ordena(Comparator)}, así que el
+     * resultado es idéntico y el ordenamiento es estable.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     * @param paralelismo el número de hilos a usar.
+     * @param umbral las sublistas de a lo más este tamaño se ordenan
+     *               secuencialmente.
+     * @throws IllegalArgumentException si <code>paralelismo</code> o
+     *         <code>umbral</code> no son positivos.
+     */
+    public void ordenaParalelo(Comparator<T> comparador, int paralelismo, int umbral) {
+	    if ( paralelismo < 1 || umbral < 1 )
+		    throw new IllegalArgumentException();
+	    if ( longitud <= 1 )
+		    return;
+
+	    ForkJoinPool pool = new ForkJoinPool(paralelismo);
+	    try {
+		    cabeza = pool.invoke(new OrdenaParalelo(cabeza, longitud, comparador, umbral));
+	    } finally {
+		    pool.shutdown();
 	    }
+	    religaAnteriores();
+    }
+
+    /**
+     * Ordena la lista en paralelo, sin copiarla, usando {@link
+     * #UMBRAL_PARALELO} como umbral.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     * @param paralelismo el número de hilos a usar.
+     * @throws IllegalArgumentException si <code>paralelismo</code> no es
+     *         positivo.
+     */
+    public void ordenaParalelo(Comparator<T> comparador, int paralelismo) {
+	    ordenaParalelo(comparador, paralelismo, UMBRAL_PARALELO);
+    }
 
-	    // Las volvemos a partir de manera recursiva hasta llegar al caso base.
-	    left = mergeSort(comparador, left);
-	    right =  mergeSort(comparador, right);
+    /**
+     * Regresa una copia de la lista, pero ordenada en paralelo. El resultado es
+     * idéntico al de {@link #mergeSort(Comparator)}.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     * @param paralelismo el número de hilos a usar.
+     * @return una copia de la lista, pero ordenada.
+     * @throws IllegalArgumentException si <code>paralelismo</code> no es
+     *         positivo.
+     */
+    public Lista<T> mergeSortParalelo(Comparator<T> comparador, int paralelismo) {
+	    Lista<T> copia = copia();
+	    copia.ordenaParalelo(comparador, paralelismo);
+	    return copia;
+    }
 
-	    // Ordenamos nuestras listas con nuestro metodo auxiliar.
-	    return merge(left, right, comparador);
+    /**
+     * Regresa una copia de la lista, pero ordenada en paralelo con tantos hilos
+     * como procesadores haya disponibles.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     * @return una copia de la lista, pero ordenada.
+     */
+    public Lista<T> mergeSortParalelo(Comparator<T> comparador) {
+	    return mergeSortParalelo(comparador, Runtime.getRuntime().availableProcessors());
     }
 
     /**
      * Regresa una copia de la lista, pero ordenada. Para poder hacer el
      * ordenamiento, el método necesita una instancia de {@link Comparator} para
-     * poder comparar los elementos de la lista.
+     * poder comparar los elementos de la lista. La lista original no se
+     * modifica; para ordenar sin copiar está {@link #ordena(Comparator)}.
      * @param comparador el comparador que la lista usará para hacer el
      *                   ordenamiento.
      * @return una copia de la lista, pero ordenada.
      */
     public Lista<T> mergeSort(Comparator<T> comparador) {
-	    return mergeSort(comparador, copia());
+	    Lista<T> copia = copia();
+	    copia.ordena(comparador);
+	    return copia;
     }
 
     /**
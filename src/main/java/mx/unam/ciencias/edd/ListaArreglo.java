@@ -0,0 +1,342 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase genérica para listas respaldadas por un arreglo que crece.</p>
+ *
+ * <p>A diferencia de {@link Lista}, los elementos se guardan contiguos en un
+ * arreglo: agregar al final es O(1) amortizado, el acceso por índice es O(1)
+ * y no hay un nodo por elemento. Eliminar o insertar a media lista es
+ * O(n).</p>
+ *
+ * <p>Las listas arreglo no aceptan a <code>null</code> como elemento.</p>
+ *
+ * @param <T> El tipo de los elementos de la lista.
+ */
+public class ListaArreglo<T> implements Coleccion<T> {
+
+    /* Capacidad inicial por omisión. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+        /* El índice del siguiente elemento. */
+        private int siguiente;
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+		return siguiente < elementos;
+        }
+
+        /* Nos da el elemento siguiente. */
+        @Override public T next() {
+		if ( siguiente >= elementos )
+			throw new NoSuchElementException();
+		return arreglo[siguiente++];
+        }
+    }
+
+    /* Clase interna privada para iteradores del último al primer elemento. */
+    private class IteradorInverso implements Iterator<T> {
+        /* El índice del siguiente elemento en el recorrido. */
+        private int siguiente = elementos - 1;
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+		return siguiente >= 0;
+        }
+
+        /* Nos da el elemento siguiente, que es el anterior en la lista. */
+        @Override public T next() {
+		if ( siguiente < 0 )
+			throw new NoSuchElementException();
+		return arreglo[siguiente--];
+        }
+    }
+
+    /* El arreglo con los elementos; sólo los primeros están ocupados. */
+    private T[] arreglo;
+    /* Número de elementos en la lista. */
+    private int elementos;
+
+    /**
+     * Construye una lista arreglo vacía.
+     */
+    public ListaArreglo() {
+	    this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Construye una lista arreglo vacía con la capacidad dada.
+     * @param capacidad el número de elementos que caben sin crecer el arreglo.
+     * @throws IllegalArgumentException si <code>capacidad</code> es negativa.
+     */
+    @SuppressWarnings("unchecked") public ListaArreglo(int capacidad) {
+	    if ( capacidad < 0 )
+		    throw new IllegalArgumentException();
+	    arreglo = (T[])new Object[capacidad];
+    }
+
+    /**
+     * Regresa el número elementos en la lista.
+     * @return el número elementos en la lista.
+     */
+    @Override public int getElementos() {
+	    return elementos;
+    }
+
+    /**
+     * Nos dice si la lista es vacía.
+     * @return <code>true</code> si la lista es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+	    return elementos == 0;
+    }
+
+    /**
+     * Se asegura de que en la lista quepan al menos el número de elementos
+     * dado sin volver a crecer el arreglo.
+     * @param capacidad el número mínimo de elementos que deben caber.
+     */
+    public void aseguraCapacidad(int capacidad) {
+	    if ( capacidad <= arreglo.length )
+		    return;
+
+	    // Crecemos a la mitad más para que agregar sea O(1) amortizado.
+	    int nueva = Math.max(capacidad, arreglo.length + ( arreglo.length >> 1 ) + 1);
+	    if ( nueva < 0 )
+		    nueva = Integer.MAX_VALUE - 8;
+	    cambiaCapacidad(nueva);
+    }
+
+    /**
+     * Recorta el arreglo interno al número de elementos de la lista, liberando
+     * la capacidad que no se usa.
+     */
+    public void recorta() {
+	    if ( arreglo.length != elementos )
+		    cambiaCapacidad(elementos);
+    }
+
+    /* Copia los elementos a un arreglo nuevo del tamaño dado. */
+    @SuppressWarnings("unchecked") private void cambiaCapacidad(int capacidad) {
+	    T[] nuevo = (T[])new Object[capacidad];
+	    System.arraycopy(arreglo, 0, nuevo, 0, elementos);
+	    arreglo = nuevo;
+    }
+
+    /**
+     * Agrega un elemento al final de la lista.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agrega(T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+
+	    if ( elementos == arreglo.length )
+		    aseguraCapacidad(elementos + 1);
+	    arreglo[elementos++] = elemento;
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     */
+    public T get(int i) {
+	    if ( i < 0 || i >= elementos )
+		    throw new ExcepcionIndiceInvalido();
+	    return arreglo[i];
+    }
+
+    /**
+     * Reemplaza el <em>i</em>-ésimo elemento de la lista.
+     * @param i el índice del elemento a reemplazar.
+     * @param elemento el nuevo elemento.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void set(int i, T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+	    if ( i < 0 || i >= elementos )
+		    throw new ExcepcionIndiceInvalido();
+	    arreglo[i] = elemento;
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si el elemento
+     *         no está contenido en la lista.
+     */
+    public int indiceDe(T elemento) {
+	    for ( int i = 0; i < elementos; i++ )
+		    if ( arreglo[i].equals(elemento) )
+			    return i;
+	    return -1;
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la lista.
+     * @return <code>true</code> si <code>elemento</code> está en la lista,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+	    return indiceDe(elemento) != -1;
+    }
+
+    /**
+     * Elimina la primera aparición de un elemento de la lista. Si el elemento
+     * no está contenido en la lista, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    @Override public void elimina(T elemento) {
+	    int i = indiceDe(elemento);
+	    if ( i == -1 )
+		    return;
+
+	    System.arraycopy(arreglo, i + 1, arreglo, i, elementos - i - 1);
+	    arreglo[--elementos] = null;
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa.
+     * @return el último elemento de la lista antes de eliminarlo.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaUltimo() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    T e = arreglo[--elementos];
+	    arreglo[elementos] = null;
+	    return e;
+    }
+
+    /**
+     * Limpia la lista de elementos, dejándola vacía. La capacidad del arreglo
+     * se conserva para volver a llenarla.
+     */
+    @Override public void limpia() {
+	    for ( int i = 0; i < elementos; i++ )
+		    arreglo[i] = null;
+	    elementos = 0;
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa la que manda llamar el método.
+     */
+    public ListaArreglo<T> reversa() {
+	    ListaArreglo<T> reversa = new ListaArreglo<T>(elementos);
+	    for ( int i = elementos - 1; i >= 0; i-- )
+		    reversa.arreglo[reversa.elementos++] = arreglo[i];
+	    return reversa;
+    }
+
+    /**
+     * Ordena la lista con {@link
+     * Arreglos#mergeSort(Object[],int,int,Comparator)} directamente sobre el
+     * arreglo interno, sin recortarlo. El ordenamiento es estable.
+     * @param comparador el comparador con el que se ordena la lista.
+     */
+    public void ordena(Comparator<T> comparador) {
+	    Arreglos.mergeSort(arreglo, 0, elementos, comparador);
+    }
+
+    /**
+     * Ordena la lista en paralelo con {@link
+     * Arreglos#mergeSortParalelo(Object[],int,int,Comparator,int)}
+     * directamente sobre el arreglo interno, sin recortarlo. El resultado es
+     * idéntico al de {@link #ordena(Comparator)}.
+     * @param comparador el comparador con el que se ordena la lista.
+     * @param paralelismo el número de hilos a usar.
+     */
+    public void ordenaParalelo(Comparator<T> comparador, int paralelismo) {
+	    Arreglos.mergeSortParalelo(arreglo, 0, elementos, comparador, paralelismo);
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+	    StringBuilder s = new StringBuilder("[");
+	    for ( int i = 0; i < elementos; i++ ) {
+		    if ( i > 0 )
+			    s.append(", ");
+		    s.append(arreglo[i]);
+	    }
+	    return s.append("]").toString();
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si la lista es igual al objeto recibido;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked") ListaArreglo<T> lista = (ListaArreglo<T>)objeto;
+	if ( elementos != lista.elementos )
+		return false;
+	for ( int i = 0; i < elementos; i++ )
+		if ( !arreglo[i].equals(lista.arreglo[i]) )
+			return false;
+	return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la lista, consistente con {@link
+     * #equals}: depende de los elementos y de su orden.
+     * @return un código de dispersión para la lista.
+     */
+    @Override public int hashCode() {
+	    int h = 1;
+	    for ( int i = 0; i < elementos; i++ )
+		    h = 31 * h + arreglo[i].hashCode();
+	    return h;
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista.
+     * @return un iterador para recorrer la lista.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista del último al primer
+     * elemento. A diferencia de {@link #reversa}, no copia la lista.
+     * @return un iterador para recorrer la lista del último al primer
+     *         elemento.
+     */
+    public Iterator<T> iteradorInverso() {
+        return new IteradorInverso();
+    }
+
+    /**
+     * Regresa una vista de la lista en orden inverso, para recorrerla del
+     * último al primer elemento con un <code>for</code>. La vista no copia la
+     * lista: refleja sus cambios.
+     * @return una vista de la lista en orden inverso.
+     */
+    public Iterable<T> vistaInversa() {
+        return this::iteradorInverso;
+    }
+}
@@ -75,6 +75,41 @@ public abstract class MeteSaca<T> {
         return ( cabeza == null );
     }
 
+    /**
+     * Mete todos los elementos del arreglo, en orden, como si se metieran uno
+     * por uno con {@link #mete}.
+     * @param elementos los elementos a meter.
+     * @throws IllegalArgumentException si algún elemento es <code>null</code>;
+     *         en ese caso no se mete ningún elemento.
+     */
+    public void meteTodos(T[] elementos) {
+	    for ( T e : elementos )
+		    if ( e == null )
+			    throw new IllegalArgumentException();
+	    for ( T e : elementos )
+		    mete(e);
+    }
+
+    /**
+     * Saca hasta <code>n</code> elementos, en el orden en que los regresaría
+     * {@link #saca}, y los guarda al inicio del arreglo recibido.
+     * @param destino el arreglo donde se guardan los elementos sacados.
+     * @param n el número máximo de elementos a sacar.
+     * @return el número de elementos sacados; es menor que <code>n</code> si
+     *         la estructura se vació antes.
+     * @throws IllegalArgumentException si <code>n</code> es negativo o mayor
+     *         que la longitud de <code>destino</code>.
+     */
+    public int sacaHasta(T[] destino, int n) {
+	    if ( n < 0 || n > destino.length )
+		    throw new IllegalArgumentException();
+
+	    int i = 0;
+	    while ( i < n && !esVacia() )
+		    destino[i++] = saca();
+	    return i;
+    }
+
     /**
      * Compara la estructura con un objeto.
      * @param object el objeto con el que queremos comparar la estructura.
@@ -0,0 +1,156 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos mínimos genéricos, respaldados por un arreglo.</p>
+ *
+ * <p>Como {@link Cola} y {@link Pila}, los montículos se usan con las
+ * operaciones mete/saca/mira, pero el elemento que se saca siempre es el menor
+ * de acuerdo al comparador del montículo. Meter y sacar son O(log n) y mirar
+ * es O(1).</p>
+ *
+ * <p>Los montículos no aceptan a <code>null</code> como elemento.</p>
+ *
+ * @param <T> El tipo de los elementos del montículo.
+ */
+public class MonticuloMinimo<T> {
+
+    /* El arreglo con los elementos, como árbol binario completo. */
+    private T[] arreglo;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+    /* El comparador de los elementos. */
+    private Comparator<T> comparador;
+
+    /**
+     * Construye un montículo vacío con el comparador dado.
+     * @param comparador el comparador de los elementos del montículo.
+     */
+    public MonticuloMinimo(Comparator<T> comparador) {
+	    this(comparador, 16);
+    }
+
+    /**
+     * Construye un montículo vacío con el comparador y la capacidad dados.
+     * @param comparador el comparador de los elementos del montículo.
+     * @param capacidad el número de elementos que caben sin crecer el arreglo.
+     */
+    @SuppressWarnings("unchecked")
+    public MonticuloMinimo(Comparator<T> comparador, int capacidad) {
+	    this.comparador = comparador;
+	    this.arreglo = (T[])new Object[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Agrega un elemento al montículo.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @SuppressWarnings("unchecked") public void mete(T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+
+	    if ( elementos == arreglo.length ) {
+		    T[] nuevo = (T[])new Object[2 * arreglo.length];
+		    System.arraycopy(arreglo, 0, nuevo, 0, elementos);
+		    arreglo = nuevo;
+	    }
+
+	    int i = elementos++;
+	    while ( i > 0 ) {
+		    int p = ( i - 1 ) / 2;
+		    if ( comparador.compare(arreglo[p], elemento) <= 0 )
+			    break;
+		    arreglo[i] = arreglo[p];
+		    i = p;
+	    }
+	    arreglo[i] = elemento;
+    }
+
+    /**
+     * Elimina el menor elemento del montículo y lo regresa.
+     * @return el menor elemento del montículo.
+     * @throws NoSuchElementException si el montículo está vacío.
+     */
+    public T saca() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    T e = arreglo[0];
+	    T ultimo = arreglo[--elementos];
+	    arreglo[elementos] = null;
+	    if ( elementos > 0 )
+		    baja(ultimo);
+
+	    return e;
+    }
+
+    /**
+     * Reemplaza el menor elemento del montículo por el elemento recibido y
+     * regresa el que se quitó. Es equivalente a {@link #saca} seguido de
+     * {@link #mete}, pero acomoda el montículo una sola vez.
+     * @param elemento el elemento a agregar.
+     * @return el menor elemento del montículo antes de reemplazarlo.
+     * @throws NoSuchElementException si el montículo está vacío.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public T reemplaza(T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    T e = arreglo[0];
+	    baja(elemento);
+	    return e;
+    }
+
+    /* Coloca el elemento en la raíz y lo baja hasta su lugar. */
+    private void baja(T elemento) {
+	    int i = 0;
+	    while ( true ) {
+		    int h = 2 * i + 1;
+		    if ( h >= elementos )
+			    break;
+		    if ( h + 1 < elementos && comparador.compare(arreglo[h+1], arreglo[h]) < 0 )
+			    h++;
+		    if ( comparador.compare(elemento, arreglo[h]) <= 0 )
+			    break;
+		    arreglo[i] = arreglo[h];
+		    i = h;
+	    }
+	    arreglo[i] = elemento;
+    }
+
+    /**
+     * Nos permite ver el menor elemento del montículo, sin sacarlo.
+     * @return el menor elemento del montículo.
+     * @throws NoSuchElementException si el montículo está vacío.
+     */
+    public T mira() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+	    return arreglo[0];
+    }
+
+    /**
+     * Nos dice si el montículo está vacío.
+     * @return <code>true</code> si el montículo no tiene elementos,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+	    return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    public int getElementos() {
+	    return elementos;
+    }
+}
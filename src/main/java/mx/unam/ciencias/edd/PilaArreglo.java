@@ -0,0 +1,201 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para pilas genéricas respaldadas por un arreglo que crece.</p>
+ *
+ * <p>A diferencia de {@link Pila}, meter un elemento no crea un nodo: el
+ * tope de la pila es el último elemento ocupado del arreglo, y el arreglo solo
+ * crece cuando se llena. Una pila que se llena y se vacía una y otra vez no
+ * crea ningún objeto después de alcanzar su tamaño máximo. {@link #meteTodos}
+ * y {@link #sacaHasta} copian bloques del arreglo en lugar de mover los
+ * elementos uno por uno.</p>
+ *
+ * <p>Las pilas arreglo no aceptan a <code>null</code> como elemento.</p>
+ *
+ * @param <T> El tipo de los elementos de la pila.
+ */
+public class PilaArreglo<T> extends MeteSaca<T> {
+
+    /* Capacidad inicial por omisión. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /* El arreglo con los elementos; el tope es el último ocupado. */
+    private T[] arreglo;
+    /* Número de elementos en la pila. */
+    private int elementos;
+
+    /**
+     * Construye una pila arreglo vacía.
+     */
+    public PilaArreglo() {
+	    this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Construye una pila arreglo vacía con la capacidad dada.
+     * @param capacidad el número de elementos que caben sin crecer el arreglo.
+     * @throws IllegalArgumentException si <code>capacidad</code> no es
+     *         positiva.
+     */
+    @SuppressWarnings("unchecked") public PilaArreglo(int capacidad) {
+	    if ( capacidad < 1 )
+		    throw new IllegalArgumentException();
+	    arreglo = (T[])new Object[capacidad];
+    }
+
+    /* Crece el arreglo para que quepan al menos capacidad elementos. */
+    private void aseguraCapacidad(int capacidad) {
+	    if ( capacidad <= arreglo.length )
+		    return;
+
+	    // Crecemos a la mitad más para que meter sea O(1) amortizado.
+	    int nueva = Math.max(capacidad, arreglo.length + ( arreglo.length >> 1 ) + 1);
+	    if ( nueva < 0 )
+		    nueva = Integer.MAX_VALUE - 8;
+	    arreglo = Arrays.copyOf(arreglo, nueva);
+    }
+
+    /**
+     * Agrega un elemento al tope de la pila.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void mete(T elemento) {
+	    if ( elemento == null )
+		    throw new IllegalArgumentException();
+
+	    aseguraCapacidad(elementos + 1);
+	    arreglo[elementos++] = elemento;
+    }
+
+    /**
+     * Agrega todos los elementos del arreglo a la pila, en orden; el último
+     * queda en el tope.
+     * @param elementos los elementos a agregar.
+     * @throws IllegalArgumentException si algún elemento es <code>null</code>;
+     *         en ese caso no se agrega ningún elemento.
+     */
+    @Override public void meteTodos(T[] elementos) {
+	    for ( T e : elementos )
+		    if ( e == null )
+			    throw new IllegalArgumentException();
+
+	    aseguraCapacidad(this.elementos + elementos.length);
+	    System.arraycopy(elementos, 0, arreglo, this.elementos, elementos.length);
+	    this.elementos += elementos.length;
+    }
+
+    /**
+     * Elimina el elemento del tope de la pila y lo regresa.
+     * @return el elemento del tope de la pila.
+     * @throws NoSuchElementException si la pila está vacía.
+     */
+    @Override public T saca() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    T e = arreglo[--elementos];
+	    // Soltamos la referencia para no retener el elemento.
+	    arreglo[elementos] = null;
+	    return e;
+    }
+
+    /**
+     * Saca hasta <code>n</code> elementos del tope de la pila, en el orden en
+     * que los regresaría {@link #saca}, y los guarda al inicio del arreglo
+     * recibido.
+     * @param destino el arreglo donde se guardan los elementos sacados.
+     * @param n el número máximo de elementos a sacar.
+     * @return el número de elementos sacados; es menor que <code>n</code> si
+     *         la pila se vació antes.
+     * @throws IllegalArgumentException si <code>n</code> es negativo o mayor
+     *         que la longitud de <code>destino</code>.
+     */
+    @Override public int sacaHasta(T[] destino, int n) {
+	    if ( n < 0 || n > destino.length )
+		    throw new IllegalArgumentException();
+
+	    int m = Math.min(n, elementos);
+	    for ( int i = 0; i < m; i++ )
+		    destino[i] = arreglo[elementos - 1 - i];
+	    Arrays.fill(arreglo, elementos - m, elementos, null);
+	    elementos -= m;
+	    return m;
+    }
+
+    /**
+     * Nos permite ver el elemento del tope de la pila, sin sacarlo.
+     * @return el elemento del tope de la pila.
+     * @throws NoSuchElementException si la pila está vacía.
+     */
+    @Override public T mira() {
+	    if ( elementos == 0 )
+		    throw new NoSuchElementException();
+
+	    return arreglo[elementos - 1];
+    }
+
+    /**
+     * Nos dice si la pila está vacía.
+     * @return <code>true</code> si la pila no tiene elementos,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+	    return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la pila.
+     * @return el número de elementos en la pila.
+     */
+    public int getElementos() {
+	    return elementos;
+    }
+
+    /**
+     * Regresa una representación en cadena de la pila, en el mismo formato
+     * que {@link Pila#toString}.
+     * @return una representación en cadena de la pila.
+     */
+    @Override public String toString() {
+	    StringBuilder sb = new StringBuilder();
+	    for ( int i = elementos - 1; i >= 0; i-- )
+		    sb.append(String.format("%s\n", arreglo[i]));
+	    return sb.toString();
+    }
+
+    /**
+     * Compara la pila con un objeto.
+     * @param object el objeto con el que queremos comparar la pila.
+     * @return <code>true</code> si el objeto recibido es una pila arreglo con
+     *         los mismos elementos en el mismo orden; <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean equals(Object object) {
+	    if ( object == null || getClass() != object.getClass() )
+		    return false;
+	    @SuppressWarnings("unchecked") PilaArreglo<T> p = (PilaArreglo<T>)object;
+	    if ( elementos != p.elementos )
+		    return false;
+	    for ( int i = 0; i < elementos; i++ )
+		    if ( !arreglo[i].equals(p.arreglo[i]) )
+			    return false;
+	    return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la pila, consistente con {@link
+     * #equals}: depende de los elementos y de su orden.
+     * @return un código de dispersión para la pila.
+     */
+    @Override public int hashCode() {
+	    int h = 1;
+	    for ( int i = 0; i < elementos; i++ )
+		    h = 31 * h + arreglo[i].hashCode();
+	    return h;
+    }
+}
@@ -0,0 +1,66 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Arena compacta de lineas en memoria.</p>
+ *
+ * <p>Los bytes de la entrada se copian tal cual a bloques contiguos de
+ * <code>byte[]</code>, uno tras otro, y cada linea es solo su desplazamiento
+ * en la arena (un {@link IndiceDeLineas}). Una linea cuesta sus bytes mas 16
+ * bytes de indice, en lugar de un {@link String} con su arreglo, su llave de
+ * colacion y la referencia en la lista; ademas el recolector de basura solo ve
+ * unos cuantos arreglos grandes.</p>
+ */
+public class ArenaDeLineas extends IndiceDeLineas {
+
+	/* Los bloques de la arena miden 2^BITS_BLOQUE bytes. */
+	private static final int BITS_BLOQUE = 22;
+	private static final int LONGITUD_BLOQUE = 1 << BITS_BLOQUE;
+
+	/* El bloque que se esta llenando y su indice. */
+	private byte[] bloque;
+	private int bloques;
+	/* La posicion global del siguiente byte libre. */
+	private long fin;
+
+	/**
+	 * Construye una arena vacia.
+	 */
+	public ArenaDeLineas() {
+		super(BITS_BLOQUE);
+	}
+
+	/**
+	 * Copia a la arena todos los bytes del flujo y agrega sus lineas al indice.
+	 * El flujo no se cierra.
+	 * @param in el flujo de donde se leen las lineas.
+	 * @throws IOException si ocurre un error al leer.
+	 */
+	public void carga(InputStream in) throws IOException {
+		long inicio = fin;
+		while ( true ) {
+			int p = (int)( fin & ( LONGITUD_BLOQUE - 1 ) );
+			if ( p == 0 && fin >>> BITS_BLOQUE == bloques ) {
+				/* El bloque anterior se lleno: empezamos uno nuevo. */
+				bloque = new byte[LONGITUD_BLOQUE];
+				setSegmento(bloques++, ByteBuffer.wrap(bloque));
+			}
+			int n = in.read(bloque, p, LONGITUD_BLOQUE - p);
+			if ( n == -1 )
+				break;
+			fin += n;
+		}
+		indexa(inicio, fin);
+	}
+
+	/**
+	 * Regresa el numero de bytes que ocupan las lineas en la arena.
+	 * @return el numero de bytes en la arena.
+	 */
+	public long getBytes() {
+		return fin;
+	}
+}
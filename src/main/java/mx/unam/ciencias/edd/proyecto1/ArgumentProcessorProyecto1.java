@@ -7,6 +7,13 @@ public final class ArgumentProcessorProyecto1 {
 	private static Lista<String> flagsList = new Lista<String>();
 	private static Lista<String> filesList = new Lista<String>();
 	private static String userOutput;
+	private static long memoryBudget = -1;
+	private static int headCount = -1;
+	private static int threads = 1;
+	private static String engine = "merge";
+	private static int outputBuffer = Salida.BUFFER_POR_OMISION;
+	private static String statsJson;
+	private static String lookPrefix;
 
 	/* Hacemos al constructor privado, evitando intanciaciones de clase */
 	private ArgumentProcessorProyecto1() {}
@@ -35,6 +42,63 @@ public final class ArgumentProcessorProyecto1 {
 		return userOutput;
 	}
 	
+	/**
+	 * Regresa (si existe) el presupuesto de memoria en bytes para el
+	 * ordenamiento externo.
+	 * @return el presupuesto de memoria en bytes, o -1 si no se paso la bandera.
+	 */
+	public static long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Regresa (si existe) el numero de lineas que se deben escribir.
+	 * @return el numero de lineas que se deben escribir, o -1 si no se paso la bandera.
+	 */
+	public static int getHeadCount() {
+		return headCount;
+	}
+
+	/**
+	 * Regresa el numero de hilos con el que se ordena.
+	 * @return el numero de hilos con el que se ordena; 1 si no se paso la bandera.
+	 */
+	public static int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Regresa el motor de ordenamiento en memoria: "merge", "multikey" o "arena".
+	 * @return el motor de ordenamiento en memoria; "merge" si no se paso la bandera.
+	 */
+	public static String getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Regresa el tamaño en bytes del buffer de la salida.
+	 * @return el tamaño del buffer de la salida; 1M si no se paso la bandera.
+	 */
+	public static int getOutputBuffer() {
+		return outputBuffer;
+	}
+
+	/**
+	 * Regresa (si existe) el ARCHIVO al que se escriben las estadisticas en JSON.
+	 * @return el ARCHIVO de --stats-json, o null si no se paso la bandera.
+	 */
+	public static String getStatsJson() {
+		return statsJson;
+	}
+
+	/**
+	 * Regresa (si existe) el prefijo a buscar con --look.
+	 * @return el prefijo de --look, o null si no se paso la bandera.
+	 */
+	public static String getLookPrefix() {
+		return lookPrefix;
+	}
+
 	/**
 	 * Depura la lista de argumentos, separando las banderas de los ARCHIVO(s) a ordenar
 	 * @param args la lista de argumentos en linea de comandos del programa.
@@ -51,7 +115,59 @@ public final class ArgumentProcessorProyecto1 {
 					userOutput = args[i+1];
 					break;
 				case "-r":
+				case "-m":
+				case "-u":
+				case "--mmap":
+				case "--stats":
+					flagsList.agrega(args[i]);
+					break;
+				case "-S":
+					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el tamaño de memoria de -S");
+					memoryBudget = parseSize(args[++i]);
+					break;
+				case "-n":
+					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el numero de lineas de -n");
+					headCount = parseHeadCount(args[++i]);
+					break;
+				case "--threads":
+					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el numero de hilos de --threads");
+					threads = parseThreads(args[++i]);
+					break;
+				case "--engine":
+					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el motor de --engine");
+					engine = args[++i];
+					if ( !engine.equals("merge") && !engine.equals("multikey") &&
+					     !engine.equals("arena") )
+						throw new IllegalArgumentException("Motor de ordenamiento invalido: " + engine);
+					break;
+				case "--look":
+					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el prefijo de --look");
+					lookPrefix = args[++i];
+					break;
+				case "--stats-json":
 					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el archivo de --stats-json");
+					statsJson = args[++i];
+					break;
+				case "--output-buffer":
+					flagsList.agrega(args[i]);
+					if ( i + 1 >= args.length )
+						throw new IllegalArgumentException("Falta el tamaño de --output-buffer");
+					long bytes = parseSize(args[++i]);
+					if ( bytes < 1 || bytes > 1 << 30 )
+						throw new IllegalArgumentException("Tamaño de buffer invalido: " + args[i]);
+					outputBuffer = (int)bytes;
 					break;
 				default:
 					if (args[i].indexOf("-") != 1 )
@@ -61,6 +177,56 @@ public final class ArgumentProcessorProyecto1 {
 		}
 	}	
 
+	/* Interpreta el numero de lineas de -n, que no puede ser negativo. */
+	private static int parseHeadCount(String n) {
+		try {
+			int c = Integer.parseInt(n);
+			if ( c < 0 )
+				throw new IllegalArgumentException("Numero de lineas invalido: " + n);
+			return c;
+		} catch ( NumberFormatException nfe ) {
+			throw new IllegalArgumentException("Numero de lineas invalido: " + n);
+		}
+	}
+
+	/* Interpreta el numero de hilos, que debe ser positivo. */
+	private static int parseThreads(String n) {
+		try {
+			int t = Integer.parseInt(n);
+			if ( t < 1 )
+				throw new IllegalArgumentException("Numero de hilos invalido: " + n);
+			return t;
+		} catch ( NumberFormatException nfe ) {
+			throw new IllegalArgumentException("Numero de hilos invalido: " + n);
+		}
+	}
+
+	/* Interpreta un tamaño como 512M: un entero con sufijo opcional K, M o G. */
+	private static long parseSize(String size) {
+		if ( size.isEmpty() )
+			throw new IllegalArgumentException("Tamaño de memoria invalido");
+
+		long factor = 1;
+		String digits = size;
+		switch ( Character.toUpperCase(size.charAt(size.length() - 1)) ) {
+			case 'K': factor = 1L << 10; break;
+			case 'M': factor = 1L << 20; break;
+			case 'G': factor = 1L << 30; break;
+			default: break;
+		}
+		if ( factor != 1 )
+			digits = size.substring(0, size.length() - 1);
+
+		try {
+			long n = Long.parseLong(digits);
+			if ( n <= 0 )
+				throw new IllegalArgumentException("Tamaño de memoria invalido: " + size);
+			return Math.multiplyExact(n, factor);
+		} catch ( NumberFormatException | ArithmeticException e ) {
+			throw new IllegalArgumentException("Tamaño de memoria invalido: " + size);
+		}
+	}
+
 	/** 
 	 * Busca si a nuestra aplicacion se le paso la bandera de reversa
 	 * @param args la lista de argumentos de linea de comandos del programa.
@@ -86,4 +252,76 @@ public final class ArgumentProcessorProyecto1 {
 		}
 		return false;
 	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de ordenamiento externo
+	 * @return true si se tiene la bandera -S, false en otro caso.
+	 */
+	public static boolean externalSort() {
+		return memoryBudget > 0;
+	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de archivos mapeados a memoria
+	 * @return true si se tiene la bandera --mmap, false en otro caso.
+	 */
+	public static boolean memoryMapped() {
+		for ( String f : flagsList ) {
+			if ( f.equals("--mmap") )
+				return true;
+		}
+		return false;
+	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de solo mezclar
+	 * @return true si se tiene la bandera -m, false en otro caso.
+	 */
+	public static boolean mergeOnly() {
+		for ( String f : flagsList ) {
+			if ( f.equals("-m") )
+				return true;
+		}
+		return false;
+	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de primeras lineas
+	 * @return true si se tiene la bandera -n, false en otro caso.
+	 */
+	public static boolean headOnly() {
+		return headCount >= 0;
+	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de busqueda por prefijo
+	 * @return true si se tiene la bandera --look, false en otro caso.
+	 */
+	public static boolean look() {
+		return lookPrefix != null;
+	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de estadisticas
+	 * @return true si se tiene la bandera --stats, false en otro caso.
+	 */
+	public static boolean stats() {
+		for ( String f : flagsList ) {
+			if ( f.equals("--stats") )
+				return true;
+		}
+		return false;
+	}
+
+	/** 
+	 * Busca si a nuestra aplicacion se le paso la bandera de lineas unicas
+	 * @return true si se tiene la bandera -u, false en otro caso.
+	 */
+	public static boolean unique() {
+		for ( String f : flagsList ) {
+			if ( f.equals("-u") )
+				return true;
+		}
+		return false;
+	}
 }
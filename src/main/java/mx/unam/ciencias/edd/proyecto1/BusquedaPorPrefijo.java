@@ -0,0 +1,203 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * <p>Busqueda por prefijo en un archivo ya ordenado, sin cargarlo.</p>
+ *
+ * <p>El archivo se mapea a memoria y se hace una busqueda binaria sobre sus
+ * bytes: cada sondeo cae a media linea, avanza al siguiente inicio de linea y
+ * compara esa linea con el prefijo. Asi se encuentra la primera linea con el
+ * prefijo en O(log n) sondeos, tocando solo las paginas de las lineas
+ * sondeadas, y las demas lineas con el prefijo se recorren a partir de ella
+ * hasta la primera que ya no lo tiene.</p>
+ *
+ * <p>El archivo debe estar ordenado con {@link StringLexicographicalComparator}
+ * (como lo deja este programa), o en el orden inverso si se busca en reversa.
+ * Una linea tiene el prefijo si la llave de colacion del prefijo (ver {@link
+ * StripAccents#normaliza}) es prefijo de la llave de la linea; esas lineas
+ * son contiguas en el archivo ordenado. Las lineas encontradas se escriben
+ * copiando sus bytes, como con <code>--mmap</code>.</p>
+ */
+public class BusquedaPorPrefijo {
+
+	/* El archivo se mapea en segmentos de 2^BITS_SEGMENTO bytes. */
+	private static final int BITS_SEGMENTO = 30;
+	private static final long LONGITUD_SEGMENTO = 1L << BITS_SEGMENTO;
+	private static final long MASCARA = LONGITUD_SEGMENTO - 1;
+
+	/* Los segmentos mapeados del archivo. */
+	private ByteBuffer[] segmentos;
+	/* La longitud del archivo en bytes. */
+	private long longitud;
+	/* La codificacion del archivo. */
+	private Charset codificacion;
+	/* El numero de lineas comparadas durante la busqueda binaria. */
+	private int sondeos;
+
+	/**
+	 * Mapea un archivo ordenado para buscar en el.
+	 * @param archivo el nombre del archivo.
+	 * @throws IOException si el archivo no se puede mapear.
+	 */
+	public BusquedaPorPrefijo(String archivo) throws IOException {
+		try ( RandomAccessFile f = new RandomAccessFile(archivo, "r") ) {
+			FileChannel canal = f.getChannel();
+			longitud = f.length();
+			segmentos = new ByteBuffer[(int)( ( longitud + MASCARA ) >>> BITS_SEGMENTO )];
+			for ( int s = 0; s < segmentos.length; s++ ) {
+				long p = (long)s << BITS_SEGMENTO;
+				segmentos[s] = canal.map(FileChannel.MapMode.READ_ONLY, p,
+							 Math.min(LONGITUD_SEGMENTO, longitud - p));
+			}
+		}
+		codificacion = Charset.defaultCharset();
+	}
+
+	/* Regresa el byte en una posicion del archivo. */
+	private byte byteEn(long p) {
+		return segmentos[(int)(p >>> BITS_SEGMENTO)].get((int)(p & MASCARA));
+	}
+
+	/* Nos dice si en la posicion p empieza una linea. */
+	private boolean esInicio(long p) {
+		if ( p == 0 )
+			return true;
+		byte a = byteEn(p - 1);
+		return a == '\n' || ( a == '\r' && ( p == longitud || byteEn(p) != '\n' ) );
+	}
+
+	/* Regresa la posicion del separador que termina la linea de p, o la longitud. */
+	private long finDeLinea(long p) {
+		while ( p < longitud ) {
+			byte b = byteEn(p);
+			if ( b == '\n' || b == '\r' )
+				return p;
+			p++;
+		}
+		return longitud;
+	}
+
+	/* Regresa el inicio de la linea que sigue a la de p, o la longitud. */
+	private long siguienteLinea(long p) {
+		long f = finDeLinea(p);
+		if ( f == longitud )
+			return longitud;
+		if ( byteEn(f) == '\r' && f + 1 < longitud && byteEn(f + 1) == '\n' )
+			return f + 2;
+		return f + 1;
+	}
+
+	/* Regresa el inicio de la linea que contiene a p. */
+	private long inicioDeLinea(long p) {
+		while ( !esInicio(p) )
+			p--;
+		return p;
+	}
+
+	/* Regresa los bytes en [inicio, fin) como un buffer, sin copiarlos si
+	 * estan en un solo segmento. */
+	private ByteBuffer bytes(long inicio, long fin) {
+		int n = (int)(fin - inicio);
+		if ( n > 0 && inicio >>> BITS_SEGMENTO == ( fin - 1 ) >>> BITS_SEGMENTO ) {
+			ByteBuffer b = segmentos[(int)(inicio >>> BITS_SEGMENTO)].duplicate();
+			int p = (int)(inicio & MASCARA);
+			b.limit(p + n).position(p);
+			return b;
+		}
+		byte[] a = new byte[n];
+		for ( int i = 0; i < n; i++ )
+			a[i] = byteEn(inicio + i);
+		return ByteBuffer.wrap(a);
+	}
+
+	/* Decodifica la linea que empieza en p. */
+	private String linea(long p) {
+		return codificacion.decode(bytes(p, finDeLinea(p))).toString();
+	}
+
+	/*
+	 * Compara la llave de la linea con la llave del prefijo, hasta la longitud
+	 * de esta: regresa 0 si la linea tiene el prefijo, y un negativo o un
+	 * positivo si va antes o despues de todas las lineas con el prefijo.
+	 */
+	private static int compara(String linea, String llave) {
+		Estadisticas.cuentaComparacion();
+		int j = 0;
+		int n = linea.length();
+		for ( int i = 0; i < n && j < llave.length(); i++ ) {
+			int c = StripAccents.pliega(linea.charAt(i));
+			if ( c == -1 )
+				continue;
+			if ( c != llave.charAt(j) )
+				return c - llave.charAt(j);
+			j++;
+		}
+		/* Una linea que se acaba antes es un prefijo propio de la llave. */
+		return j == llave.length() ? 0 : -1;
+	}
+
+	/*
+	 * Regresa el inicio de la primera linea con el prefijo, o de la primera
+	 * que va despues de ellas.
+	 */
+	private long primera(String llave, boolean reversa) {
+		/* Las lineas que empiezan antes de lo van antes de las del prefijo; la
+		 * primera que no va antes empieza en [lo, hi], y hi es un inicio de
+		 * linea o la longitud. */
+		long lo = 0;
+		long hi = longitud;
+		while ( lo < hi ) {
+			long mitad = lo + ( hi - lo ) / 2;
+			long s = esInicio(mitad) ? mitad : Math.min(siguienteLinea(mitad), hi);
+			/* Si ninguna linea empieza en [mitad, hi), sondeamos la que la
+			 * cubre, que empieza antes de mitad. */
+			if ( s == hi )
+				s = inicioDeLinea(mitad);
+
+			sondeos++;
+			int c = compara(linea(s), llave);
+			if ( reversa ? c > 0 : c < 0 )
+				lo = siguienteLinea(s);
+			else
+				hi = s;
+		}
+		return lo;
+	}
+
+	/**
+	 * Escribe en la salida, en el orden del archivo, todas las lineas que
+	 * tienen el prefijo.
+	 * @param out la salida.
+	 * @param prefijo el prefijo a buscar.
+	 * @param reversa si el archivo esta en orden inverso.
+	 * @return el numero de lineas escritas.
+	 * @throws IOException si ocurre un error al escribir.
+	 */
+	public long escribe(Salida out, String prefijo, boolean reversa) throws IOException {
+		String llave = StripAccents.normaliza(prefijo);
+		long lineas = 0;
+		for ( long p = primera(llave, reversa); p < longitud; p = siguienteLinea(p) ) {
+			long f = finDeLinea(p);
+			ByteBuffer b = bytes(p, f);
+			if ( compara(codificacion.decode(b.duplicate()).toString(), llave) != 0 )
+				break;
+			out.escribe(b);
+			out.terminaLinea();
+			lineas++;
+		}
+		return lineas;
+	}
+
+	/**
+	 * Regresa el numero de lineas que se compararon en la busqueda binaria.
+	 * @return el numero de sondeos de la busqueda binaria.
+	 */
+	public int getSondeos() {
+		return sondeos;
+	}
+}
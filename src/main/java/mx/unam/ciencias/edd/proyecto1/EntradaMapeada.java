@@ -0,0 +1,44 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.Lista;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>Entrada de varios archivos mapeados a memoria.</p>
+ *
+ * <p>En lugar de convertir cada linea en un {@link String}, los archivos se
+ * mapean con {@link FileChannel#map} y las lineas se guardan como un {@link
+ * IndiceDeLineas} sobre los bytes mapeados.</p>
+ */
+public class EntradaMapeada extends IndiceDeLineas {
+
+	/* Los archivos se mapean en segmentos de 2^BITS_SEGMENTO bytes. */
+	private static final int BITS_SEGMENTO = 30;
+	private static final long LONGITUD_SEGMENTO = 1L << BITS_SEGMENTO;
+
+	/**
+	 * Mapea los archivos a memoria y construye el indice de sus lineas. Cada
+	 * archivo empieza en un segmento nuevo.
+	 * @param archivos los nombres de los archivos a mapear.
+	 * @throws IOException si algun archivo no se puede mapear.
+	 */
+	public EntradaMapeada(Lista<String> archivos) throws IOException {
+		super(BITS_SEGMENTO);
+
+		int s = 0;
+		for ( String a : archivos ) {
+			long base = (long)s << BITS_SEGMENTO;
+			RandomAccessFile f = new RandomAccessFile(a, "r");
+			FileChannel canal = f.getChannel();
+			long longitud = f.length();
+			for ( long p = 0; p < longitud; p += LONGITUD_SEGMENTO )
+				setSegmento(s++, canal.map(FileChannel.MapMode.READ_ONLY, p,
+							   Math.min(LONGITUD_SEGMENTO, longitud - p)));
+			/* El mapeo sigue siendo valido despues de cerrar el archivo. */
+			f.close();
+			indexa(base, base + longitud);
+		}
+	}
+}
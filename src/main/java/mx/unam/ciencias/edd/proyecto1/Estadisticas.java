@@ -0,0 +1,240 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.Lista;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Metricas por fase de una ejecucion del programa.</p>
+ *
+ * <p>Cada fase (lectura, ordenamiento, escritura) registra su tiempo de reloj,
+ * las lineas y bytes que proceso, cuantas veces se compararon dos lineas y el
+ * pico del heap. Ademas cada fase se emite como un evento de JFR
+ * <code>mx.unam.ciencias.edd.proyecto1.Fase</code>, que se puede ver en una
+ * grabacion aunque no se hayan activado las estadisticas; en ese caso el
+ * evento no cuenta las comparaciones.</p>
+ *
+ * <p>Mientras las estadisticas no se activen, contar comparaciones cuesta solo
+ * leer una bandera.</p>
+ */
+public class Estadisticas {
+
+	/* El evento de JFR de una fase. */
+	@Name("mx.unam.ciencias.edd.proyecto1.Fase")
+	@Label("Fase")
+	@Category("Proyecto1")
+	@Description("Una fase del ordenamiento: lectura, ordenamiento o escritura.")
+	private static class EventoFase extends Event {
+		@Label("Fase")
+		private String fase;
+		@Label("Lineas")
+		private long lineas;
+		@Label("Bytes")
+		@DataAmount
+		private long bytes;
+		@Label("Comparaciones")
+		private long comparaciones;
+	}
+
+	/* Flujo de entrada que cuenta los bytes que se leen de el. */
+	private static class EntradaContada extends FilterInputStream {
+		private EntradaContada(InputStream in) {
+			super(in);
+		}
+
+		@Override public int read() throws IOException {
+			int b = super.read();
+			if ( b != -1 )
+				bytesLeidos.increment();
+			return b;
+		}
+
+		@Override public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if ( n > 0 )
+				bytesLeidos.add(n);
+			return n;
+		}
+
+		@Override public long skip(long n) throws IOException {
+			long s = super.skip(n);
+			bytesLeidos.add(s);
+			return s;
+		}
+	}
+
+	/* Las metricas de una fase terminada. */
+	private static class Fase {
+		private String nombre;
+		private long nanos;
+		private long lineas;
+		private long bytes;
+		private long comparaciones;
+		private long picoHeap;
+	}
+
+	/* Si se estan tomando las estadisticas. */
+	private static boolean activas;
+	/* El numero de comparaciones de lineas hasta ahora. */
+	private static final LongAdder comparaciones = new LongAdder();
+	/* El numero de bytes leidos de los flujos contados. */
+	private static final LongAdder bytesLeidos = new LongAdder();
+	/* Las fases terminadas, en orden. */
+	private static Lista<Fase> fases = new Lista<Fase>();
+	/* La fase en curso, su evento, su inicio y las comparaciones al iniciarla. */
+	private static Fase actual;
+	private static EventoFase evento;
+	private static long inicio;
+	private static long comparacionesInicio;
+
+	/* Constructor privado para evitar instanciacion. */
+	private Estadisticas() {}
+
+	/**
+	 * Activa las estadisticas: a partir de ahora se cuentan las comparaciones.
+	 */
+	public static void activa() {
+		activas = true;
+	}
+
+	/**
+	 * Nos dice si las estadisticas estan activas.
+	 * @return <code>true</code> si las estadisticas estan activas,
+	 *         <code>false</code> en otro caso.
+	 */
+	public static boolean activas() {
+		return activas;
+	}
+
+	/**
+	 * Cuenta una comparacion de lineas, si las estadisticas estan activas. Se
+	 * puede llamar desde varios hilos.
+	 */
+	public static void cuentaComparacion() {
+		if ( activas )
+			comparaciones.increment();
+	}
+
+	/**
+	 * Regresa un flujo que lee del flujo recibido y cuenta los bytes leidos.
+	 * @param in el flujo a contar.
+	 * @return el flujo que cuenta los bytes.
+	 */
+	public static InputStream cuenta(InputStream in) {
+		return new EntradaContada(in);
+	}
+
+	/**
+	 * Regresa el numero de bytes leidos de todos los flujos contados.
+	 * @return el numero de bytes leidos de los flujos contados.
+	 */
+	public static long getBytesLeidos() {
+		return bytesLeidos.sum();
+	}
+
+	/**
+	 * Inicia una fase. Si habia otra fase en curso, la termina sin lineas ni
+	 * bytes.
+	 * @param nombre el nombre de la fase.
+	 */
+	public static void inicia(String nombre) {
+		if ( actual != null )
+			termina(0, 0);
+
+		actual = new Fase();
+		actual.nombre = nombre;
+		evento = new EventoFase();
+		evento.begin();
+		if ( activas )
+			for ( MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans() )
+				if ( p.getType() == MemoryType.HEAP )
+					p.resetPeakUsage();
+		comparacionesInicio = comparaciones.sum();
+		inicio = System.nanoTime();
+	}
+
+	/**
+	 * Termina la fase en curso.
+	 * @param lineas el numero de lineas que proceso la fase.
+	 * @param bytes el numero de bytes que proceso la fase.
+	 * @throws IllegalStateException si no hay una fase en curso.
+	 */
+	public static void termina(long lineas, long bytes) {
+		if ( actual == null )
+			throw new IllegalStateException();
+
+		actual.nanos = System.nanoTime() - inicio;
+		actual.lineas = lineas;
+		actual.bytes = bytes;
+		actual.comparaciones = comparaciones.sum() - comparacionesInicio;
+		if ( activas )
+			actual.picoHeap = picoHeap();
+
+		evento.fase = actual.nombre;
+		evento.lineas = lineas;
+		evento.bytes = bytes;
+		evento.comparaciones = actual.comparaciones;
+		evento.commit();
+
+		fases.agrega(actual);
+		actual = null;
+		evento = null;
+	}
+
+	/* La suma de los picos de las regiones del heap desde que empezo la fase. */
+	private static long picoHeap() {
+		long pico = 0;
+		for ( MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans() )
+			if ( p.getType() == MemoryType.HEAP && p.getPeakUsage() != null )
+				pico += p.getPeakUsage().getUsed();
+		return pico;
+	}
+
+	/**
+	 * Imprime las fases terminadas como una tabla.
+	 * @param out en donde se imprime la tabla.
+	 */
+	public static void imprime(PrintStream out) {
+		out.printf("%-14s %12s %12s %14s %14s %12s\n", "fase", "tiempo (ms)",
+			   "lineas", "bytes", "comparaciones", "heap (MB)");
+		for ( Fase f : fases )
+			out.printf(Locale.ROOT, "%-14s %12.1f %12d %14d %14d %12.1f\n",
+				   f.nombre, f.nanos / 1e6, f.lineas, f.bytes,
+				   f.comparaciones, f.picoHeap / 1048576.0);
+	}
+
+	/**
+	 * Regresa las fases terminadas en JSON: un objeto con un arreglo
+	 * <code>fases</code>, con un objeto por fase.
+	 * @return las fases terminadas en JSON.
+	 */
+	public static String json() {
+		StringBuilder sb = new StringBuilder("{\"fases\":[");
+		boolean primera = true;
+		for ( Fase f : fases ) {
+			if ( !primera )
+				sb.append(',');
+			primera = false;
+			/* Los nombres de las fases no tienen caracteres que escapar. */
+			sb.append(String.format(Locale.ROOT,
+						"{\"fase\":\"%s\",\"nanos\":%d,\"lineas\":%d," +
+						"\"bytes\":%d,\"comparaciones\":%d,\"picoHeap\":%d}",
+						f.nombre, f.nanos, f.lineas, f.bytes,
+						f.comparaciones, f.picoHeap));
+		}
+		return sb.append("]}").toString();
+	}
+}
@@ -0,0 +1,388 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+
+/**
+ * <p>Indice de lineas guardadas como bytes en segmentos de memoria.</p>
+ *
+ * <p>Las lineas no se convierten en {@link String}: los bytes de la entrada
+ * viven en segmentos {@link ByteBuffer} de 2<sup>bits</sup> bytes cada uno, y
+ * cada linea es solo su desplazamiento de inicio y fin, en arreglos
+ * <code>long[]</code>. Las lineas se comparan directamente sobre los bytes y
+ * se escriben copiando los bytes originales, sin decodificarlos ni volver a
+ * codificarlos.</p>
+ *
+ * <p>Los bytes deben estar en una codificacion compatible con ASCII (como
+ * UTF-8 o ISO-8859-1), y se interpretan con la codificacion por omision,
+ * igual que al leerlos con un {@link java.io.InputStreamReader}. Con UTF-8 e
+ * ISO-8859-1 los caracteres se decodifican al vuelo mientras se comparan; con
+ * otras codificaciones, o si una linea tiene bytes invalidos, las lineas con
+ * bytes no ASCII se decodifican completas.</p>
+ *
+ * <p>Las subclases llenan los segmentos y llaman {@link #indexa} con cada
+ * intervalo de bytes que ya se puede dividir en lineas.</p>
+ */
+public abstract class IndiceDeLineas {
+
+	/* Los segmentos miden 2^bits bytes. */
+	private int bits;
+	private long mascara;
+	/*
+	 * Los segmentos de la entrada; el segmento de una posicion global es
+	 * pos >>> bits. Una linea puede cruzar de un segmento al siguiente.
+	 */
+	private ByteBuffer[] segmentos;
+	/* El inicio y el fin (exclusivo) de cada linea, en posiciones globales. */
+	private long[] inicios;
+	private long[] finales;
+	/* El numero de lineas. */
+	private int lineas;
+	/* El orden de las lineas, como indices en inicios y finales. */
+	private int[] orden;
+	/* La codificacion para las lineas que no son ASCII. */
+	private Charset codificacion;
+	/* Si la codificacion es UTF-8 o ISO-8859-1, que se decodifican al comparar. */
+	private boolean utf8;
+	private boolean latin1;
+	/* El comparador para las lineas que no son ASCII. */
+	private Comparator<String> comparador;
+
+	/**
+	 * Construye un indice vacio.
+	 * @param bits el logaritmo base 2 del tamaño de los segmentos.
+	 * @throws IllegalArgumentException si <code>bits</code> no esta entre 1
+	 *         y 30.
+	 */
+	protected IndiceDeLineas(int bits) {
+		if ( bits < 1 || bits > 30 )
+			throw new IllegalArgumentException();
+
+		this.bits = bits;
+		this.mascara = ( 1L << bits ) - 1;
+		this.segmentos = new ByteBuffer[16];
+		this.inicios = new long[1024];
+		this.finales = new long[1024];
+		this.codificacion = Charset.defaultCharset();
+		this.utf8 = codificacion.equals(StandardCharsets.UTF_8);
+		this.latin1 = codificacion.equals(StandardCharsets.ISO_8859_1);
+		this.comparador = new StringLexicographicalComparator();
+	}
+
+	/**
+	 * Pone el segmento <em>i</em>, que cubre las posiciones globales desde
+	 * <code>i << bits</code>. Todos los segmentos, salvo el ultimo, deben medir
+	 * exactamente 2<sup>bits</sup> bytes si una linea puede cruzarlos.
+	 * @param i el indice del segmento.
+	 * @param segmento el segmento.
+	 */
+	protected void setSegmento(int i, ByteBuffer segmento) {
+		if ( i >= segmentos.length ) {
+			ByteBuffer[] s = new ByteBuffer[Math.max(i + 1, 2 * segmentos.length)];
+			System.arraycopy(segmentos, 0, s, 0, segmentos.length);
+			segmentos = s;
+		}
+		segmentos[i] = segmento;
+	}
+
+	/* Regresa el byte en la posicion global. */
+	private byte byteEn(long pos) {
+		return segmentos[(int)(pos >>> bits)].get((int)(pos & mascara));
+	}
+
+	/**
+	 * Agrega al indice las lineas de los bytes en [inicio, fin), que ya deben
+	 * estar en los segmentos. Las lineas terminan en <code>'\n'</code>,
+	 * <code>'\r'</code> o <code>"\r\n"</code>, igual que con {@link
+	 * java.io.BufferedReader#readLine}; la ultima no necesita terminador.
+	 * @param inicio la posicion global del primer byte.
+	 * @param fin la posicion global despues del ultimo byte.
+	 */
+	protected void indexa(long inicio, long fin) {
+		long l = inicio;
+		long p = inicio;
+		/* Si el byte anterior fue '\r', para no contar el '\n' de "\r\n". */
+		boolean retorno = false;
+		while ( p < fin ) {
+			ByteBuffer segmento = segmentos[(int)(p >>> bits)];
+			int desde = (int)(p & mascara);
+			int hasta = (int)Math.min(segmento.limit(), desde + ( fin - p ));
+			long base = p - desde;
+			for ( int k = desde; k < hasta; k++ ) {
+				byte b = segmento.get(k);
+				if ( b == '\n' && retorno ) {
+					l = base + k + 1;
+					retorno = false;
+				} else if ( b == '\n' || b == '\r' ) {
+					agregaLinea(l, base + k);
+					l = base + k + 1;
+					retorno = b == '\r';
+				} else {
+					retorno = false;
+				}
+			}
+			p = base + hasta;
+		}
+		if ( l < fin )
+			agregaLinea(l, fin);
+	}
+
+	/* Agrega una linea al indice, creciendo los arreglos si hace falta. */
+	private void agregaLinea(long inicio, long fin) {
+		if ( lineas == inicios.length ) {
+			int n = inicios.length + ( inicios.length >> 1 );
+			long[] i = new long[n];
+			long[] f = new long[n];
+			System.arraycopy(inicios, 0, i, 0, lineas);
+			System.arraycopy(finales, 0, f, 0, lineas);
+			inicios = i;
+			finales = f;
+		}
+		inicios[lineas] = inicio;
+		finales[lineas] = fin;
+		lineas++;
+	}
+
+	/**
+	 * Regresa el numero de lineas de la entrada.
+	 * @return el numero de lineas de la entrada.
+	 */
+	public int getLineas() {
+		return lineas;
+	}
+
+	/**
+	 * Regresa la <em>i</em>-esima linea de la entrada, decodificada.
+	 * @param i el indice de la linea en la entrada.
+	 * @return la <em>i</em>-esima linea de la entrada.
+	 */
+	public String getLinea(int i) {
+		return decodifica(inicios[i], finales[i]);
+	}
+
+	/* Decodifica los bytes en [inicio, fin). */
+	private String decodifica(long inicio, long fin) {
+		byte[] bytes = new byte[(int)(fin - inicio)];
+		if ( bytes.length > 0 && inicio >>> bits == ( fin - 1 ) >>> bits ) {
+			ByteBuffer segmento = segmentos[(int)(inicio >>> bits)].duplicate();
+			segmento.position((int)(inicio & mascara));
+			segmento.get(bytes);
+		} else {
+			for ( int i = 0; i < bytes.length; i++ )
+				bytes[i] = byteEn(inicio + i);
+		}
+		return new String(bytes, codificacion);
+	}
+
+	/*
+	 * Decodifica el caracter que empieza con el byte no ASCII en la posicion
+	 * i del segmento, sin pasar de fin. Regresa la posicion siguiente
+	 * recorrida 16 bits a la izquierda, junto con el caracter en los 16 bits
+	 * bajos; o -1 si el caracter no cabe en un char, la secuencia no es
+	 * valida, o la codificacion no es UTF-8 ni ISO-8859-1. Con -1 hay que
+	 * decodificar la linea completa, que reemplaza los bytes invalidos igual
+	 * que al leerla como cadena.
+	 */
+	private long caracter(ByteBuffer segmento, int i, int fin) {
+		int b = segmento.get(i) & 0xFF;
+		if ( latin1 )
+			return ( (long)( i + 1 ) << 16 ) | b;
+		if ( !utf8 )
+			return -1;
+
+		if ( b >= 0xC2 && b <= 0xDF && i + 1 < fin ) {
+			int b1 = segmento.get(i + 1);
+			if ( ( b1 & 0xC0 ) != 0x80 )
+				return -1;
+			return ( (long)( i + 2 ) << 16 ) | ( ( b & 0x1F ) << 6 ) | ( b1 & 0x3F );
+		}
+		if ( b >= 0xE0 && b <= 0xEF && i + 2 < fin ) {
+			int b1 = segmento.get(i + 1);
+			int b2 = segmento.get(i + 2);
+			if ( ( b1 & 0xC0 ) != 0x80 || ( b2 & 0xC0 ) != 0x80 )
+				return -1;
+			int c = ( ( b & 0x0F ) << 12 ) | ( ( b1 & 0x3F ) << 6 ) | ( b2 & 0x3F );
+			/* Las secuencias demasiado largas y los surrogates no son validos. */
+			if ( c < 0x800 || ( c >= 0xD800 && c <= 0xDFFF ) )
+				return -1;
+			return ( (long)( i + 3 ) << 16 ) | c;
+		}
+		return -1;
+	}
+
+	/*
+	 * Compara dos lineas con el orden de StringLexicographicalComparator. Los
+	 * caracteres se pliegan al vuelo; en cuanto aparece uno que no se puede
+	 * decodificar al vuelo se decodifican ambas lineas y se comparan como
+	 * cadenas.
+	 */
+	private int compara(int a, int b) {
+		Estadisticas.cuentaComparacion();
+		long inicioA = inicios[a];
+		long inicioB = inicios[b];
+		long finA = finales[a];
+		long finB = finales[b];
+		/* Casi siempre cada linea esta en un solo segmento. */
+		if ( finA > inicioA && finB > inicioB &&
+		     inicioA >>> bits == ( finA - 1 ) >>> bits &&
+		     inicioB >>> bits == ( finB - 1 ) >>> bits )
+			return comparaEnSegmentos(a, b);
+		return comparaCruzando(a, b);
+	}
+
+	/*
+	 * Compara dos lineas no vacias que no cruzan de segmento. Los caracteres
+	 * no ASCII se decodifican al vuelo, sin crear cadenas.
+	 */
+	private int comparaEnSegmentos(int a, int b) {
+		ByteBuffer x = segmentos[(int)(inicios[a] >>> bits)];
+		ByteBuffer y = segmentos[(int)(inicios[b] >>> bits)];
+		int i = (int)(inicios[a] & mascara);
+		int j = (int)(inicios[b] & mascara);
+		int finA = i + (int)(finales[a] - inicios[a]);
+		int finB = j + (int)(finales[b] - inicios[b]);
+
+		while ( true ) {
+			int c1 = -1;
+			int c2 = -1;
+			while ( c1 == -1 && i < finA ) {
+				byte z = x.get(i);
+				if ( z >= 0 ) {
+					c1 = StripAccents.pliega((char)z);
+					i++;
+				} else {
+					long c = caracter(x, i, finA);
+					if ( c == -1 )
+						return comparaDecodificando(a, b);
+					c1 = StripAccents.pliega((char)c);
+					i = (int)( c >>> 16 );
+				}
+			}
+			while ( c2 == -1 && j < finB ) {
+				byte z = y.get(j);
+				if ( z >= 0 ) {
+					c2 = StripAccents.pliega((char)z);
+					j++;
+				} else {
+					long c = caracter(y, j, finB);
+					if ( c == -1 )
+						return comparaDecodificando(a, b);
+					c2 = StripAccents.pliega((char)c);
+					j = (int)( c >>> 16 );
+				}
+			}
+
+			if ( c1 == -1 || c2 == -1 )
+				return Integer.compare(c1, c2);
+			if ( c1 != c2 )
+				return c1 - c2;
+		}
+	}
+
+	/* Compara dos lineas cualesquiera, buscando el segmento de cada byte. */
+	private int comparaCruzando(int a, int b) {
+		long i = inicios[a];
+		long j = inicios[b];
+		long finA = finales[a];
+		long finB = finales[b];
+
+		while ( true ) {
+			int c1 = -1;
+			int c2 = -1;
+			while ( c1 == -1 && i < finA ) {
+				byte x = byteEn(i++);
+				if ( x < 0 )
+					return comparaDecodificando(a, b);
+				c1 = StripAccents.pliega((char)x);
+			}
+			while ( c2 == -1 && j < finB ) {
+				byte x = byteEn(j++);
+				if ( x < 0 )
+					return comparaDecodificando(a, b);
+				c2 = StripAccents.pliega((char)x);
+			}
+
+			if ( c1 == -1 || c2 == -1 )
+				return Integer.compare(c1, c2);
+			if ( c1 != c2 )
+				return c1 - c2;
+		}
+	}
+
+	/* Compara dos lineas decodificandolas. */
+	private int comparaDecodificando(int a, int b) {
+		return comparador.compare(getLinea(a), getLinea(b));
+	}
+
+	/**
+	 * Ordena el indice de lineas. El ordenamiento es estable y da el mismo
+	 * orden que {@link StringLexicographicalComparator}.
+	 */
+	public void ordena() {
+		orden = new int[lineas];
+		for ( int i = 0; i < lineas; i++ )
+			orden[i] = i;
+		mergeSort(orden, orden.clone(), 0, lineas);
+	}
+
+	/* MergeSort estable sobre los indices de lineas en [lo, hi). */
+	private void mergeSort(int[] a, int[] aux, int lo, int hi) {
+		if ( hi - lo < 2 )
+			return;
+
+		int mitad = lo + ( hi - lo ) / 2;
+		mergeSort(a, aux, lo, mitad);
+		mergeSort(a, aux, mitad, hi);
+		if ( compara(a[mitad-1], a[mitad]) <= 0 )
+			return;
+
+		System.arraycopy(a, lo, aux, lo, hi - lo);
+		int i = lo;
+		int j = mitad;
+		for ( int k = lo; k < hi; k++ ) {
+			if ( j >= hi || ( i < mitad && compara(aux[i], aux[j]) <= 0 ) )
+				a[k] = aux[i++];
+			else
+				a[k] = aux[j++];
+		}
+	}
+
+	/**
+	 * Escribe las lineas ordenadas en la salida, copiando sus bytes originales
+	 * y terminando cada linea con el separador del sistema.
+	 * @param out la salida.
+	 * @param reversa si las lineas se escriben en orden inverso.
+	 * @param unicas si se omiten las lineas equivalentes a la ultima escrita.
+	 * @return el numero de lineas repetidas que se omitieron.
+	 * @throws IOException si ocurre un error al escribir.
+	 */
+	public long escribe(Salida out, boolean reversa, boolean unicas) throws IOException {
+		long repetidas = 0;
+		int ultima = -1;
+		for ( int k = 0; k < lineas; k++ ) {
+			int l = orden[reversa ? lineas - 1 - k : k];
+			if ( unicas && ultima != -1 && compara(ultima, l) == 0 ) {
+				repetidas++;
+				continue;
+			}
+			ultima = l;
+			long p = inicios[l];
+			while ( p < finales[l] ) {
+				/* Una linea puede cruzar el fin de un segmento. */
+				ByteBuffer segmento = segmentos[(int)(p >>> bits)].duplicate();
+				int desde = (int)(p & mascara);
+				int hasta = (int)Math.min(segmento.limit(), desde + ( finales[l] - p ));
+				segmento.position(desde);
+				segmento.limit(hasta);
+				p += hasta - desde;
+				out.escribe(segmento);
+			}
+			out.terminaLinea();
+		}
+
+		return repetidas;
+	}
+}
@@ -0,0 +1,221 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.ListaArreglo;
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * <p>Lectura y ordenamiento en tuberia de varios archivos.</p>
+ *
+ * <p>Los archivos se leen al mismo tiempo en un numero acotado de hilos
+ * lectores (hilos virtuales si la maquina virtual los tiene). Cada lector
+ * corta su archivo en bloques de lineas y, en cuanto un bloque se llena, lo
+ * entrega a los hilos que ordenan, asi que la lectura de un archivo se empalma
+ * con el ordenamiento de los bloques que ya se leyeron.</p>
+ *
+ * <p>Al final los bloques ordenados se mezclan en memoria con un {@link
+ * MonticuloMinimo}. Entre lineas equivalentes gana el bloque que va antes en
+ * el orden de los archivos, asi que el resultado es exactamente el del
+ * ordenamiento estable de la concatenacion de los archivos, sin importar en
+ * que orden terminen los hilos.</p>
+ */
+public class LecturaParalela {
+
+	/* El numero de lineas de cada bloque que se entrega a ordenar. */
+	private static final int LINEAS_BLOQUE = 1 << 15;
+
+	/* Una linea junto con el indice del bloque de donde salio. */
+	private static class Cabeza {
+		private String linea;
+		private int bloque;
+		private int siguiente;
+
+		private Cabeza(String linea, int bloque) {
+			this.linea = linea;
+			this.bloque = bloque;
+			this.siguiente = 1;
+		}
+	}
+
+	/* Los hilos que leen los archivos. */
+	private ExecutorService lectores;
+	/* Los hilos que ordenan los bloques. */
+	private ExecutorService ordenadores;
+	/* El ordenamiento de cada bloque. */
+	private Consumer<ListaArreglo<String>> ordenador;
+
+	/**
+	 * Construye una lectura en tuberia.
+	 * @param lectores el numero maximo de archivos que se leen a la vez.
+	 * @param hilos el numero de hilos que ordenan bloques.
+	 * @param ordenador el ordenamiento, estable, de cada bloque.
+	 * @throws IllegalArgumentException si <code>lectores</code> o
+	 *         <code>hilos</code> no son positivos.
+	 */
+	public LecturaParalela(int lectores, int hilos,
+			       Consumer<ListaArreglo<String>> ordenador) {
+		if ( lectores < 1 || hilos < 1 )
+			throw new IllegalArgumentException();
+
+		this.lectores = Executors.newFixedThreadPool(lectores, fabricaLectores());
+		this.ordenadores = Executors.newFixedThreadPool(hilos, r -> {
+				Thread t = new Thread(r, "ordenador");
+				t.setDaemon(true);
+				return t;
+			});
+		this.ordenador = ordenador;
+	}
+
+	/*
+	 * Regresa una fabrica de hilos virtuales si la maquina virtual los tiene
+	 * (Java 21 o posterior), o de hilos demonio en otro caso. Se busca con
+	 * reflexion para seguir compilando con Java 11.
+	 */
+	private static ThreadFactory fabricaLectores() {
+		try {
+			Object constructor = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory)Class.forName("java.lang.Thread$Builder")
+				.getMethod("factory").invoke(constructor);
+		} catch ( ReflectiveOperationException | RuntimeException e ) {
+			return r -> {
+				Thread t = new Thread(r, "lector");
+				t.setDaemon(true);
+				return t;
+			};
+		}
+	}
+
+	/**
+	 * Lee los archivos y regresa la concatenacion de sus lineas ya ordenada.
+	 * Los hilos de la lectura se terminan al acabar.
+	 * @param archivos los nombres de los archivos a leer.
+	 * @return las lineas de todos los archivos, ordenadas.
+	 * @throws IOException si algun archivo no se puede leer; el mensaje es el
+	 *         nombre del archivo.
+	 */
+	public ListaArreglo<String> ordena(Lista<String> archivos) throws IOException {
+		try {
+			@SuppressWarnings("unchecked") Future<Lista<Future<ListaArreglo<String>>>>[] lecturas =
+				(Future<Lista<Future<ListaArreglo<String>>>>[])new Future<?>[archivos.getLongitud()];
+			int i = 0;
+			for ( String a : archivos )
+				lecturas[i++] = lectores.submit(() -> lee(a));
+
+			/* Los bloques quedan en el orden de los archivos y, dentro de cada
+			 * archivo, en el orden en que se leyeron. */
+			Lista<ListaArreglo<String>> bloques = new Lista<ListaArreglo<String>>();
+			i = 0;
+			for ( String a : archivos ) {
+				for ( Future<ListaArreglo<String>> b : espera(lecturas[i++], a) )
+					bloques.agrega(espera(b, a));
+			}
+
+			return mezcla(bloques);
+		} finally {
+			lectores.shutdownNow();
+			ordenadores.shutdownNow();
+		}
+	}
+
+	/* Lee un archivo, entregando a ordenar cada bloque en cuanto se llena. */
+	private Lista<Future<ListaArreglo<String>>> lee(String archivo) throws IOException {
+		Lista<Future<ListaArreglo<String>>> bloques = new Lista<Future<ListaArreglo<String>>>();
+		try ( BufferedReader in = new BufferedReader(new InputStreamReader(
+						Estadisticas.cuenta(new FileInputStream(archivo))), 1 << 16) ) {
+			ListaArreglo<String> bloque = new ListaArreglo<String>(LINEAS_BLOQUE);
+			String linea;
+			while ( (linea = in.readLine()) != null ) {
+				bloque.agrega(linea);
+				if ( bloque.getElementos() == LINEAS_BLOQUE ) {
+					bloques.agrega(entrega(bloque));
+					bloque = new ListaArreglo<String>(LINEAS_BLOQUE);
+				}
+			}
+			if ( !bloque.esVacia() )
+				bloques.agrega(entrega(bloque));
+		}
+		return bloques;
+	}
+
+	/* Entrega un bloque a los hilos que ordenan. */
+	private Future<ListaArreglo<String>> entrega(ListaArreglo<String> bloque) {
+		return ordenadores.submit(() -> {
+				ordenador.accept(bloque);
+				return bloque;
+			});
+	}
+
+	/* Espera el resultado de una tarea; los errores se reportan con el nombre del archivo. */
+	private static <T> T espera(Future<T> tarea, String archivo) throws IOException {
+		try {
+			return tarea.get();
+		} catch ( InterruptedException ie ) {
+			Thread.currentThread().interrupt();
+			throw new IOException(archivo, ie);
+		} catch ( ExecutionException ee ) {
+			throw new IOException(archivo, ee.getCause());
+		}
+	}
+
+	/*
+	 * Mezcla los bloques ordenados; los empates los gana el bloque de menor
+	 * indice. La lista de bloques queda vacia, y cada bloque se suelta en
+	 * cuanto se agota para no tener dos copias de todas las lineas.
+	 */
+	private static ListaArreglo<String> mezcla(Lista<ListaArreglo<String>> bloques) {
+		@SuppressWarnings("unchecked") ListaArreglo<String>[] b =
+			(ListaArreglo<String>[])new ListaArreglo<?>[bloques.getLongitud()];
+		int total = 0;
+		int k = 0;
+		for ( ListaArreglo<String> bloque : bloques ) {
+			total += bloque.getElementos();
+			b[k++] = bloque;
+		}
+		bloques.limpia();
+
+		/* Un solo bloque ya es el resultado. */
+		if ( b.length == 1 )
+			return b[0];
+
+		ListaArreglo<String> lineas = new ListaArreglo<String>(total);
+
+		Comparator<String> comparador = new StringLexicographicalComparator();
+		MonticuloMinimo<Cabeza> monticulo = new MonticuloMinimo<Cabeza>((x, y) -> {
+				int c = comparador.compare(x.linea, y.linea);
+				return c != 0 ? c : Integer.compare(x.bloque, y.bloque);
+			}, b.length);
+		for ( int i = 0; i < b.length; i++ ) {
+			if ( !b[i].esVacia() )
+				monticulo.mete(new Cabeza(b[i].get(0), i));
+			else
+				b[i] = null;
+		}
+
+		while ( !monticulo.esVacia() ) {
+			Cabeza c = monticulo.mira();
+			lineas.agrega(c.linea);
+			ListaArreglo<String> bloque = b[c.bloque];
+			if ( c.siguiente == bloque.getElementos() ) {
+				monticulo.saca();
+				b[c.bloque] = null;
+			} else {
+				/* Reusamos la cabeza: la linea nueva sale del mismo bloque. */
+				c.linea = bloque.get(c.siguiente++);
+				monticulo.reemplaza(c);
+			}
+		}
+
+		return lineas;
+	}
+}
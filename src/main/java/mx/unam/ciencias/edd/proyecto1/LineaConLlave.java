@@ -0,0 +1,73 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.Arreglos;
+import mx.unam.ciencias.edd.ListaArreglo;
+
+/**
+ * <p>Clase para lineas acompañadas de su llave de colacion.</p>
+ *
+ * <p>La llave se calcula una sola vez por linea, de manera que ordenar por
+ * llaves no vuelve a normalizar las lineas en cada comparacion. El orden
+ * natural de la clase es el de {@link StringLexicographicalComparator}.</p>
+ */
+public class LineaConLlave implements Comparable<LineaConLlave> {
+
+	/* La linea original. */
+	private String linea;
+	/* La llave de colacion de la linea. */
+	private String llave;
+
+	/**
+	 * Construye una linea con su llave de colacion.
+	 * @param linea la linea original.
+	 */
+	public LineaConLlave(String linea) {
+		this.linea = linea;
+		this.llave = StringLexicographicalComparator.llave(linea);
+	}
+
+	/**
+	 * Regresa la linea original.
+	 * @return la linea original.
+	 */
+	public String getLinea() {
+		return linea;
+	}
+
+	/**
+	 * Regresa la llave de colacion de la linea.
+	 * @return la llave de colacion de la linea.
+	 */
+	public String getLlave() {
+		return llave;
+	}
+
+	@Override
+	public int compareTo(LineaConLlave otra) {
+		Estadisticas.cuentaComparacion();
+		return llave.compareTo(otra.llave);
+	}
+
+	/**
+	 * Ordena la lista de lineas en su lugar, calculando la llave de cada linea
+	 * una sola vez. El orden es el mismo, y tan estable, que el de ordenar con
+	 * {@link StringLexicographicalComparator}, y no depende del numero de
+	 * hilos.
+	 * @param lineas la lista de lineas a ordenar.
+	 * @param hilos el numero de hilos con el que se ordena.
+	 */
+	public static void ordena(ListaArreglo<String> lineas, int hilos) {
+		int n = lineas.getElementos();
+		LineaConLlave[] llaves = new LineaConLlave[n];
+		for ( int i = 0; i < n; i++ )
+			llaves[i] = new LineaConLlave(lineas.get(i));
+
+		if ( hilos > 1 )
+			Arreglos.mergeSortParalelo(llaves, (a, b) -> a.compareTo(b), hilos);
+		else
+			Arreglos.mergeSort(llaves);
+
+		for ( int i = 0; i < n; i++ )
+			lineas.set(i, llaves[i].linea);
+	}
+}
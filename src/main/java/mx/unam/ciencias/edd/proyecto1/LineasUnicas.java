@@ -0,0 +1,74 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.ListaArreglo;
+import java.util.Comparator;
+
+/**
+ * Clase para quitar las lineas repetidas de una lista ya ordenada. Dos lineas
+ * son repetidas si son equivalentes con {@link StringLexicographicalComparator};
+ * de cada grupo de lineas repetidas se conserva la primera.
+ */
+public class LineasUnicas {
+
+	/* Constructor privado para evitar instanciacion. */
+	private LineasUnicas() {}
+
+	/**
+	 * Quita de la lista ordenada las lineas equivalentes a la anterior,
+	 * conservando la primera de cada grupo. La lista puede estar en orden
+	 * directo o inverso.
+	 * @param lineas la lista ordenada.
+	 * @return el numero de lineas que se quitaron.
+	 */
+	public static int elimina(ListaArreglo<String> lineas) {
+		return elimina(lineas, false);
+	}
+
+	/**
+	 * Quita de la lista ordenada las lineas repetidas, conservando de cada
+	 * grupo la que sale primero cuando la lista se recorre en la direccion
+	 * dada. Con <code>inversa</code> la lista se sigue guardando en su orden,
+	 * pero se conserva la ultima de cada grupo, que es la primera que sale al
+	 * recorrerla con {@link ListaArreglo#vistaInversa}.
+	 * @param lineas la lista ordenada.
+	 * @param inversa si la lista se va a recorrer del final al principio.
+	 * @return el numero de lineas que se quitaron.
+	 */
+	public static int elimina(ListaArreglo<String> lineas, boolean inversa) {
+		if ( inversa )
+			return eliminaConservandoUltima(lineas);
+
+		Comparator<String> comparador = new StringLexicographicalComparator();
+		int n = lineas.getElementos();
+		if ( n == 0 )
+			return 0;
+
+		int unicas = 1;
+		for ( int i = 1; i < n; i++ ) {
+			String l = lineas.get(i);
+			if ( comparador.compare(lineas.get(unicas - 1), l) != 0 )
+				lineas.set(unicas++, l);
+		}
+		for ( int i = unicas; i < n; i++ )
+			lineas.eliminaUltimo();
+
+		return n - unicas;
+	}
+
+	/* Quita las lineas equivalentes a la siguiente, conservando la ultima de cada grupo. */
+	private static int eliminaConservandoUltima(ListaArreglo<String> lineas) {
+		Comparator<String> comparador = new StringLexicographicalComparator();
+		int n = lineas.getElementos();
+
+		int unicas = 0;
+		for ( int i = 0; i < n; i++ ) {
+			String l = lineas.get(i);
+			if ( i == n - 1 || comparador.compare(l, lineas.get(i + 1)) != 0 )
+				lineas.set(unicas++, l);
+		}
+		for ( int i = unicas; i < n; i++ )
+			lineas.eliminaUltimo();
+
+		return n - unicas;
+	}
+}
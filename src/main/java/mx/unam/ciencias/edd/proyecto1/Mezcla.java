@@ -0,0 +1,87 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Comparator;
+
+/**
+ * <p>Mezcla de k entradas ya ordenadas.</p>
+ *
+ * <p>Las lineas se leen una a la vez de cada entrada y la siguiente linea de
+ * la salida se escoge con un {@link MonticuloMinimo} de a lo mas k lineas, asi
+ * que la mezcla usa memoria O(k) y la salida empieza de inmediato.</p>
+ *
+ * <p>Entre lineas equivalentes gana la entrada de menor indice, o la de mayor
+ * indice si la mezcla es en reversa; asi mezclar da el mismo resultado que
+ * concatenar las entradas y ordenarlas con el ordenamiento estable.</p>
+ */
+public class Mezcla {
+
+	/* Una linea junto con el indice de la entrada de donde salio. */
+	private static class Cabeza {
+		private String linea;
+		private int entrada;
+
+		private Cabeza(String linea, int entrada) {
+			this.linea = linea;
+			this.entrada = entrada;
+		}
+	}
+
+	/* Constructor privado para evitar instanciacion. */
+	private Mezcla() {}
+
+	/**
+	 * Mezcla las entradas en la salida. Cada entrada debe estar ordenada con
+	 * {@link StringLexicographicalComparator}, o en orden inverso si la mezcla
+	 * es en reversa.
+	 * @param entradas las entradas ordenadas.
+	 * @param out la salida.
+	 * @param reversa si las entradas y la salida van en orden inverso.
+	 * @param unicas si se quitan las lineas equivalentes a la ultima escrita.
+	 * @return el numero de lineas repetidas que se quitaron.
+	 * @throws IOException si ocurre un error al leer o al escribir.
+	 */
+	public static long mezcla(BufferedReader[] entradas, Salida out,
+				  boolean reversa, boolean unicas) throws IOException {
+		Comparator<String> lineas = new StringLexicographicalComparator();
+		Comparator<Cabeza> comparador = (a, b) -> {
+			int c = lineas.compare(a.linea, b.linea);
+			if ( c == 0 )
+				c = Integer.compare(a.entrada, b.entrada);
+			return reversa ? -c : c;
+		};
+
+		MonticuloMinimo<Cabeza> monticulo =
+			new MonticuloMinimo<Cabeza>(comparador, entradas.length);
+		for ( int i = 0; i < entradas.length; i++ ) {
+			String linea = entradas[i].readLine();
+			if ( linea != null )
+				monticulo.mete(new Cabeza(linea, i));
+		}
+
+		String ultima = null;
+		long repetidas = 0;
+		while ( !monticulo.esVacia() ) {
+			Cabeza c = monticulo.mira();
+			if ( unicas && ultima != null && lineas.compare(ultima, c.linea) == 0 ) {
+				repetidas++;
+			} else {
+				out.escribeLinea(c.linea);
+				ultima = c.linea;
+			}
+
+			String siguiente = entradas[c.entrada].readLine();
+			if ( siguiente == null ) {
+				monticulo.saca();
+			} else {
+				/* Reusamos la cabeza: la linea nueva sale de la misma entrada. */
+				c.linea = siguiente;
+				monticulo.reemplaza(c);
+			}
+		}
+
+		return repetidas;
+	}
+}
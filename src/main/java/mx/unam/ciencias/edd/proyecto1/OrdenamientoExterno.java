@@ -0,0 +1,207 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.ListaArreglo;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * <p>Ordenamiento externo con memoria acotada.</p>
+ *
+ * <p>Las lineas se leen en bloques cuyo tamaño estimado no rebasa el
+ * presupuesto de memoria; cada bloque se ordena y se vacia a un archivo
+ * temporal (una <em>corrida</em>), y al final las corridas se mezclan en la
+ * salida con {@link Mezcla}. El resultado es identico al de ordenar todo en memoria con {@link
+ * StringLexicographicalComparator}, incluyendo la opcion de reversa.</p>
+ */
+public class OrdenamientoExterno {
+
+	/* Costo fijo estimado por linea en memoria: la linea, su llave y las referencias a ellas. */
+	private static final long COSTO_POR_LINEA = 128;
+	/* Numero maximo de corridas que se mezclan a la vez. */
+	private static final int MAXIMO_CORRIDAS = 64;
+	/* Tamaño del buffer de cada corrida abierta durante la mezcla. */
+	private static final int BUFFER_CORRIDA = 1 << 16;
+
+	/* El presupuesto de memoria para las lineas de un bloque. */
+	private long presupuesto;
+	/* Si la salida va en orden inverso. */
+	private boolean reversa;
+	/* El ordenamiento en memoria de cada bloque. */
+	private Consumer<ListaArreglo<String>> ordenador;
+	/* Las corridas vaciadas a disco, en el orden en que se generaron. */
+	private Lista<File> corridas;
+	/* El bloque de lineas que aun no se vacia a disco. */
+	private ListaArreglo<String> bloque;
+	/* La memoria estimada que ocupa el bloque. */
+	private long ocupado;
+	/* Si se quitan las lineas repetidas. */
+	private boolean unicas;
+	/* El numero de lineas repetidas que se han quitado. */
+	private long repetidas;
+	/* El numero de lineas leidas. */
+	private long leidas;
+
+	/**
+	 * Construye un ordenamiento externo.
+	 * @param memoria el presupuesto de memoria en bytes.
+	 * @param reversa si la salida debe ir en orden inverso.
+	 * @param ordenador el ordenamiento en memoria de cada bloque; debe dar el
+	 *        orden estable de {@link StringLexicographicalComparator}.
+	 * @param unicas si se quitan las lineas repetidas; se quitan desde que se
+	 *        genera cada corrida y en cada mezcla.
+	 */
+	public OrdenamientoExterno(long memoria, boolean reversa,
+				   Consumer<ListaArreglo<String>> ordenador, boolean unicas) {
+		/* La mitad del presupuesto se reserva para las copias que hace el ordenamiento. */
+		this.presupuesto = Math.max(memoria / 2, 1);
+		this.reversa = reversa;
+		this.ordenador = ordenador;
+		this.unicas = unicas;
+		this.corridas = new Lista<File>();
+		this.bloque = new ListaArreglo<String>();
+	}
+
+	/**
+	 * Agrega al ordenamiento todas las lineas de la entrada, vaciando a disco
+	 * cada bloque que llene el presupuesto.
+	 * @param in la entrada de donde se leen las lineas.
+	 * @throws IOException si ocurre un error al leer o al escribir una corrida.
+	 */
+	public void carga(BufferedReader in) throws IOException {
+		String linea;
+		while ( (linea = in.readLine()) != null ) {
+			bloque.agrega(linea);
+			leidas++;
+			ocupado += COSTO_POR_LINEA + 4L * linea.length();
+			if ( ocupado >= presupuesto )
+				vacia();
+		}
+	}
+
+	/**
+	 * Regresa el numero de lineas que se han cargado.
+	 * @return el numero de lineas que se han cargado.
+	 */
+	public long getLeidas() {
+		return leidas;
+	}
+
+	/**
+	 * Regresa el numero de lineas repetidas que se han quitado.
+	 * @return el numero de lineas repetidas que se han quitado.
+	 */
+	public long getRepetidas() {
+		return repetidas;
+	}
+
+	/*
+	 * Ordena el bloque y lo regresa en la direccion de la salida, sin
+	 * repetidas si se pidio. La reversa es una vista, no una copia.
+	 */
+	private Iterable<String> ordenaBloque() {
+		ordenador.accept(bloque);
+		if ( unicas )
+			repetidas += LineasUnicas.elimina(bloque, reversa);
+		return reversa ? bloque.vistaInversa() : bloque;
+	}
+
+	/* Ordena el bloque actual y lo escribe en una corrida nueva. */
+	private void vacia() throws IOException {
+		if ( bloque.esVacia() )
+			return;
+
+		File corrida = File.createTempFile("proyecto1-", ".corrida");
+		corrida.deleteOnExit();
+		Salida out = abreCorrida(corrida);
+		for ( String c : ordenaBloque() )
+			out.escribeLinea(c);
+		out.cierra();
+
+		corridas.agrega(corrida);
+		bloque = new ListaArreglo<String>();
+		ocupado = 0;
+	}
+
+	/**
+	 * Escribe en la salida todas las lineas cargadas, ordenadas. Si todo cupo
+	 * en un solo bloque no se usa el disco.
+	 * @param out la salida.
+	 * @throws IOException si ocurre un error al leer las corridas o al
+	 *         escribir la salida.
+	 */
+	public void escribe(Salida out) throws IOException {
+		if ( corridas.esVacia() ) {
+			for ( String c : ordenaBloque() )
+				out.escribeLinea(c);
+			return;
+		}
+
+		vacia();
+		while ( corridas.getLongitud() > MAXIMO_CORRIDAS )
+			reduceCorridas();
+
+		mezcla(corridas, out);
+		for ( File f : corridas )
+			f.delete();
+		corridas.limpia();
+	}
+
+	/* Mezcla grupos consecutivos de corridas, para no abrir demasiadas a la vez. */
+	private void reduceCorridas() throws IOException {
+		Lista<File> mezcladas = new Lista<File>();
+		Lista<File> grupo = new Lista<File>();
+
+		for ( File f : corridas ) {
+			grupo.agrega(f);
+			if ( grupo.getLongitud() == MAXIMO_CORRIDAS ) {
+				mezcladas.agrega(mezclaGrupo(grupo));
+				grupo = new Lista<File>();
+			}
+		}
+		if ( !grupo.esVacia() )
+			mezcladas.agrega(mezclaGrupo(grupo));
+
+		corridas = mezcladas;
+	}
+
+	/* Mezcla un grupo de corridas en una corrida nueva y borra las originales. */
+	private File mezclaGrupo(Lista<File> grupo) throws IOException {
+		File corrida = File.createTempFile("proyecto1-", ".corrida");
+		corrida.deleteOnExit();
+		Salida out = abreCorrida(corrida);
+		mezcla(grupo, out);
+		out.cierra();
+
+		for ( File f : grupo )
+			f.delete();
+
+		return corrida;
+	}
+
+	/* Mezcla las corridas en la salida con una mezcla de k entradas. */
+	private void mezcla(Lista<File> grupo, Salida out) throws IOException {
+		BufferedReader[] entradas = new BufferedReader[grupo.getLongitud()];
+		int i = 0;
+		for ( File f : grupo )
+			entradas[i++] = new BufferedReader(new InputStreamReader(
+					new FileInputStream(f), StandardCharsets.UTF_8), BUFFER_CORRIDA);
+
+		repetidas += Mezcla.mezcla(entradas, out, reversa, unicas);
+
+		for ( BufferedReader in : entradas )
+			in.close();
+	}
+
+	/* Abre una corrida para escritura; las corridas siempre van en UTF-8. */
+	private static Salida abreCorrida(File corrida) throws IOException {
+		return new Salida(new FileOutputStream(corrida).getChannel(),
+				  StandardCharsets.UTF_8, BUFFER_CORRIDA);
+	}
+}
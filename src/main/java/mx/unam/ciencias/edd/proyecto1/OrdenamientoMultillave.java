@@ -0,0 +1,149 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.ListaArreglo;
+import java.util.Arrays;
+
+/**
+ * <p>Ordenamiento de lineas con QuickSort multillave (Bentley-Sedgewick).</p>
+ *
+ * <p>Las lineas se ordenan por su llave de colacion, un caracter a la vez: el
+ * arreglo se parte en tres segun el caracter <em>d</em> de cada llave, y solo
+ * la parte igual avanza al caracter <em>d</em>+1. Asi los prefijos comunes
+ * (como las marcas de tiempo de una bitacora) se recorren una sola vez en
+ * lugar de volver a compararse en cada comparacion.</p>
+ *
+ * <p>El orden es el mismo que el de {@link StringLexicographicalComparator}, y
+ * las lineas equivalentes conservan el orden en que llegaron.</p>
+ */
+public class OrdenamientoMultillave {
+
+	/* Los intervalos de a lo mas este tamaño se ordenan por insercion. */
+	private static final int CORTE_INSERCION = 12;
+
+	/* Constructor privado para evitar instanciacion. */
+	private OrdenamientoMultillave() {}
+
+	/**
+	 * Ordena la lista de lineas en su lugar.
+	 * @param lineas la lista de lineas a ordenar.
+	 */
+	public static void ordena(ListaArreglo<String> lineas) {
+		int n = lineas.getElementos();
+		String[] llaves = new String[n];
+		int[] posiciones = new int[n];
+		String[] originales = new String[n];
+		for ( int i = 0; i < n; i++ ) {
+			originales[i] = lineas.get(i);
+			llaves[i] = StripAccents.normaliza(originales[i]);
+			posiciones[i] = i;
+		}
+
+		ordena(llaves, posiciones, 0, n - 1, 0);
+
+		for ( int i = 0; i < n; i++ )
+			lineas.set(i, originales[posiciones[i]]);
+	}
+
+	/* Regresa el caracter d de la llave, o -1 si la llave ya termino. */
+	private static int caracter(String llave, int d) {
+		return d < llave.length() ? llave.charAt(d) : -1;
+	}
+
+	/* Intercambia los elementos i y j de ambos arreglos. */
+	private static void intercambia(String[] llaves, int[] posiciones, int i, int j) {
+		String l = llaves[i];
+		llaves[i] = llaves[j];
+		llaves[j] = l;
+		int p = posiciones[i];
+		posiciones[i] = posiciones[j];
+		posiciones[j] = p;
+	}
+
+	/*
+	 * Ordena [lo, hi], cuyas llaves coinciden en sus primeros d caracteres.
+	 * Solo se hace recursion sobre las partes mas chicas, que tienen a lo mas
+	 * la mitad de los elementos, y la mas grande se ordena en la siguiente
+	 * vuelta del ciclo; asi la pila crece a lo mas log n aunque las llaves
+	 * compartan prefijos de miles de caracteres.
+	 */
+	private static void ordena(String[] llaves, int[] posiciones, int lo, int hi, int d) {
+		while ( hi - lo >= CORTE_INSERCION ) {
+			// Usamos la mediana de tres como pivote, para no ser cuadraticos con
+			// entradas ya ordenadas.
+			int m = lo + ( hi - lo ) / 2;
+			int a = caracter(llaves[lo], d);
+			int b = caracter(llaves[m], d);
+			int c = caracter(llaves[hi], d);
+			int v = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+
+			int lt = lo;
+			int gt = hi;
+			int i = lo;
+			while ( i <= gt ) {
+				int t = caracter(llaves[i], d);
+				if ( t < v )
+					intercambia(llaves, posiciones, lt++, i++);
+				else if ( t > v )
+					intercambia(llaves, posiciones, i, gt--);
+				else
+					i++;
+			}
+
+			int menores = lt - lo;
+			int iguales = gt - lt + 1;
+			int mayores = hi - gt;
+			if ( v < 0 ) {
+				// Las llaves de [lt, gt] son identicas: se quedan en el orden de
+				// llegada para que el ordenamiento sea estable, y ya no hay que
+				// ordenarlas.
+				Arrays.sort(posiciones, lt, gt + 1);
+				iguales = 0;
+			}
+
+			if ( iguales > 0 && iguales >= menores && iguales >= mayores ) {
+				ordena(llaves, posiciones, lo, lt - 1, d);
+				ordena(llaves, posiciones, gt + 1, hi, d);
+				lo = lt;
+				hi = gt;
+				d++;
+			} else if ( menores >= mayores ) {
+				if ( iguales > 0 )
+					ordena(llaves, posiciones, lt, gt, d + 1);
+				ordena(llaves, posiciones, gt + 1, hi, d);
+				hi = lt - 1;
+			} else {
+				ordena(llaves, posiciones, lo, lt - 1, d);
+				if ( iguales > 0 )
+					ordena(llaves, posiciones, lt, gt, d + 1);
+				lo = gt + 1;
+			}
+		}
+		insercion(llaves, posiciones, lo, hi, d);
+	}
+
+	/* Ordena [lo, hi] por insercion, comparando las llaves desde el caracter d. */
+	private static void insercion(String[] llaves, int[] posiciones, int lo, int hi, int d) {
+		for ( int i = lo + 1; i <= hi; i++ )
+			for ( int j = i; j > lo && menor(llaves, posiciones, j, j - 1, d); j-- )
+				intercambia(llaves, posiciones, j, j - 1);
+	}
+
+	/*
+	 * Nos dice si el elemento i va antes que el j; los empates los rompe la
+	 * posicion. Es la unica comparacion de lineas completas del algoritmo: las
+	 * particiones solo comparan un caracter.
+	 */
+	private static boolean menor(String[] llaves, int[] posiciones, int i, int j, int d) {
+		Estadisticas.cuentaComparacion();
+		String x = llaves[i];
+		String y = llaves[j];
+		int n = Math.min(x.length(), y.length());
+		for ( int k = d; k < n; k++ ) {
+			if ( x.charAt(k) != y.charAt(k) )
+				return x.charAt(k) < y.charAt(k);
+		}
+		if ( x.length() != y.length() )
+			return x.length() < y.length();
+		return posiciones[i] < posiciones[j];
+	}
+}
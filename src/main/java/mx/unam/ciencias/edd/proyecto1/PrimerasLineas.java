@@ -0,0 +1,178 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * <p>Las primeras N lineas del orden, sin ordenar toda la entrada.</p>
+ *
+ * <p>Mientras se lee la entrada se mantiene un {@link MonticuloMinimo} con las
+ * N mejores lineas vistas hasta el momento, con la peor en la raiz; cada linea
+ * nueva solo entra si es mejor que esa. El tiempo es O(total · log N) y la
+ * memoria O(N). Las lineas que quedan son exactamente las primeras N del
+ * ordenamiento estable, incluyendo la opcion de reversa.</p>
+ */
+public class PrimerasLineas {
+
+	/* Una linea junto con su numero de llegada, y su llave y cuantas veces se
+	 * repitio si se quitan repetidas. */
+	private static class Entrada {
+		private String linea;
+		private long secuencia;
+		private String llave;
+		private long repetidas;
+
+		private Entrada(String linea, long secuencia, String llave) {
+			this.linea = linea;
+			this.secuencia = secuencia;
+			this.llave = llave;
+		}
+	}
+
+	/* El numero de lineas que se conservan. */
+	private int n;
+	/* Si el orden es el inverso. */
+	private boolean reversa;
+	/* El comparador de las lineas. */
+	private Comparator<String> lineas;
+	/* Las mejores lineas hasta ahora, con la peor en la raiz. */
+	private MonticuloMinimo<Entrada> monticulo;
+	/* El numero de lineas leidas. */
+	private long leidas;
+	/* Si se quitan las lineas repetidas. */
+	private boolean unicas;
+	/* Con unicas, las entradas del monticulo por llave de colacion. */
+	private HashMap<String, Entrada> vistas;
+	/* El numero de repeticiones de las lineas que estan en el monticulo. */
+	private long repetidas;
+
+	/**
+	 * Construye un selector de las primeras lineas.
+	 * @param n el numero de lineas a conservar.
+	 * @param reversa si el orden es el inverso.
+	 * @param unicas si se quitan las lineas repetidas; de cada grupo se
+	 *        conserva la que sale primero.
+	 * @throws IllegalArgumentException si <code>n</code> es negativo.
+	 */
+	public PrimerasLineas(int n, boolean reversa, boolean unicas) {
+		if ( n < 0 )
+			throw new IllegalArgumentException();
+
+		this.n = n;
+		this.reversa = reversa;
+		this.lineas = new StringLexicographicalComparator();
+		this.unicas = unicas;
+		if ( unicas )
+			this.vistas = new HashMap<String, Entrada>();
+		/* El orden de salida es por linea y despues por llegada; la raiz es la ultima. */
+		this.monticulo = new MonticuloMinimo<Entrada>((a, b) -> -ordenSalida(a, b),
+								Math.min(n, 1 << 16));
+	}
+
+	/* Compara dos entradas en el orden en que saldrian en la salida. */
+	private int ordenSalida(Entrada a, Entrada b) {
+		int c = lineas.compare(a.linea, b.linea);
+		if ( c == 0 )
+			c = Long.compare(a.secuencia, b.secuencia);
+		return reversa ? -c : c;
+	}
+
+	/**
+	 * Lee todas las lineas de la entrada, conservando solo las primeras N.
+	 * @param in la entrada de donde se leen las lineas.
+	 * @throws IOException si ocurre un error al leer.
+	 */
+	public void carga(BufferedReader in) throws IOException {
+		String linea;
+		while ( (linea = in.readLine()) != null )
+			agrega(linea);
+	}
+
+	/**
+	 * Considera una linea para las primeras N.
+	 * @param linea la linea a considerar.
+	 */
+	public void agrega(String linea) {
+		long secuencia = leidas++;
+		if ( n == 0 )
+			return;
+
+		String llave = null;
+		if ( unicas ) {
+			llave = StripAccents.normaliza(linea);
+			Entrada e = vistas.get(llave);
+			if ( e != null ) {
+				/* En reversa sale primero la que llego al ultimo. Como en el
+				 * monticulo no hay otra entrada con la misma llave, cambiarla
+				 * no altera su lugar. */
+				if ( reversa ) {
+					e.linea = linea;
+					e.secuencia = secuencia;
+				}
+				e.repetidas++;
+				repetidas++;
+				return;
+			}
+		}
+
+		if ( monticulo.getElementos() < n ) {
+			Entrada e = new Entrada(linea, secuencia, llave);
+			monticulo.mete(e);
+			if ( unicas )
+				vistas.put(llave, e);
+			return;
+		}
+
+		/* La linea nueva llego despues que todas, asi que pierde los empates,
+		 * salvo en reversa donde la estabilidad invertida los gana. */
+		int c = lineas.compare(linea, monticulo.mira().linea);
+		if ( reversa ? c >= 0 : c < 0 ) {
+			Entrada e = new Entrada(linea, secuencia, llave);
+			Entrada fuera = monticulo.reemplaza(e);
+			if ( unicas ) {
+				/* Las repeticiones de la linea que sale ya no se cuentan: solo
+				 * se reportan las de las lineas que se escriben. */
+				repetidas -= fuera.repetidas;
+				vistas.remove(fuera.llave);
+				vistas.put(llave, e);
+			}
+		}
+	}
+
+	/**
+	 * Regresa el numero de lineas que se han considerado.
+	 * @return el numero de lineas que se han considerado.
+	 */
+	public long getLeidas() {
+		return leidas;
+	}
+
+	/**
+	 * Regresa el numero de lineas repetidas que se quitaron de las primeras N,
+	 * es decir, cuantas lineas leidas son repeticiones de las lineas que se
+	 * escriben. Las repeticiones de las demas lineas no se cuentan: contarlas
+	 * requeriria recordar las llaves de toda la entrada.
+	 * @return el numero de lineas repetidas de las primeras N.
+	 */
+	public long getRepetidas() {
+		return repetidas;
+	}
+
+	/**
+	 * Escribe en la salida las primeras N lineas, en orden. El selector queda
+	 * vacio.
+	 * @param out la salida.
+	 * @throws IOException si ocurre un error al escribir.
+	 */
+	public void escribe(Salida out) throws IOException {
+		String[] primeras = new String[monticulo.getElementos()];
+		for ( int i = primeras.length - 1; i >= 0; i-- )
+			primeras[i] = monticulo.saca().linea;
+
+		for ( String l : primeras )
+			out.escribeLinea(l);
+	}
+}
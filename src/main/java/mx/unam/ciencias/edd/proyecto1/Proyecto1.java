@@ -2,80 +2,72 @@ package mx.unam.ciencias.edd.proyecto1;
 
 import mx.unam.ciencias.edd.*;
 import java.io.File;
+import java.io.FileDescriptor;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.BufferedWriter;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
 
 public class Proyecto1 {
 
-	/* Metodo auxiliar para guardar el archivo ya ordenado en disco duro. */
-	private static void escritura(String nombreArchivo, Lista<String> ordenada) {
-		try {
-			FileOutputStream fileOut = new FileOutputStream(nombreArchivo);
-			OutputStreamWriter osOut = new OutputStreamWriter(fileOut);
-			BufferedWriter out = new BufferedWriter(osOut);
-
-			for ( String c : ordenada ) {
-				out.write(c);
-				out.newLine();
-			}
-
-			out.close();
-		} catch ( IOException ioe ) {
-			System.out.printf("No fue posible guardar en el archivo \"%s\"", nombreArchivo);
-			System.exit(1);
-		}
-	}
-
 	/** 
 	 * Metodo que se encarga de la escritura del archivo, una vez ya ordenado.
 	 * @param ordenada la lista ya ordenada.
+	 * @param printReverse si la lista se escribe del final al principio.
 	 */
 
-	private static void write(Lista<String> ordenada) {
-		boolean hasUserOutput = ArgumentProcessorProyecto1.userOutput();
-		String userOutput;
-
-		if ( hasUserOutput ) {
-			userOutput = ArgumentProcessorProyecto1.getUserOutput();
-			escritura(userOutput, ordenada);
-			System.out.printf("\nGuardado exitosamente en \"%s\"\n", userOutput);
-		} else {
-			for ( String c : ordenada ) {
-				System.out.println(c);
-			}
+	private static void write(ListaArreglo<String> ordenada, boolean printReverse) {
+		Estadisticas.inicia("escritura");
+		try {
+			Salida out = abreSalida();
+			for ( String c : printReverse ? ordenada.vistaInversa() : ordenada )
+				out.escribeLinea(c);
+			cierraSalida(out);
+			Estadisticas.termina(out.getLineas(), out.getBytes());
+		} catch ( IOException ioe ) {
+			System.err.println("No fue posible escribir la salida ordenada.");
+			System.exit(1);
 		}
+	}
 
+	/* Informa en donde se guardo la salida, si se dio -o. */
+	private static void reportaGuardado() {
+		if ( ArgumentProcessorProyecto1.userOutput() )
+			System.err.printf("\nGuardado exitosamente en \"%s\"\n",
+					  ArgumentProcessorProyecto1.getUserOutput());
 	}
 	/* Crea una lista y la llena cargandola del disco duro. Despues la regresa*/
-	private static Lista<String> lectura(Lista<String> listaArchivos) {
-		Lista<String> lineas = new Lista<String>();
+	private static ListaArreglo<String> lectura(Lista<String> listaArchivos) {
+		ListaArreglo<String> lineas = new ListaArreglo<String>();
 
 		for ( String f : listaArchivos ) {
 			String nombreArchivo = f;
 			try {
-				FileInputStream fileIn = new FileInputStream(nombreArchivo);
+				InputStream fileIn = Estadisticas.cuenta(new FileInputStream(nombreArchivo));
 				InputStreamReader isIn = new InputStreamReader(fileIn);
 				BufferedReader in = new BufferedReader(isIn);
 				carga(in, lineas);		
 				in.close();
 			} catch (IOException ioe) {
-				System.out.printf("No se pudo cargar el archivo \"%s\".\n",
+				System.err.printf("No se pudo cargar el archivo \"%s\".\n",
 						  nombreArchivo);
 				System.exit(1);
 			}
 
-			System.out.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
+			System.err.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
 		}
 
 		return lineas;
 	}
 
-	private static void carga(BufferedReader in, Lista<String> lista) throws IOException {
+	private static void carga(BufferedReader in, ListaArreglo<String> lista) throws IOException {
 		String currentLine;
 		while ( (currentLine = in.readLine() ) != null ) {
 			lista.agrega(currentLine);
@@ -84,43 +76,455 @@ public class Proyecto1 {
 
 
 
+	/* Informa cuantas lineas repetidas se quitaron, si se dio -u. */
+	private static void reportaRepetidas(long repetidas) {
+		if ( ArgumentProcessorProyecto1.unique() )
+			System.err.printf("Se quitaron %d lineas repetidas.\n", repetidas);
+	}
+
+	/*
+	 * Abre la salida del programa: el ARCHIVO de -o, o la salida estandar. En
+	 * ambos casos se escribe directamente al canal del descriptor, con el
+	 * buffer de --output-buffer.
+	 */
+	private static Salida abreSalida() throws IOException {
+		FileOutputStream out = ArgumentProcessorProyecto1.userOutput() ?
+			new FileOutputStream(ArgumentProcessorProyecto1.getUserOutput()) :
+			new FileOutputStream(FileDescriptor.out);
+		return new Salida(out.getChannel(), Charset.defaultCharset(),
+				  ArgumentProcessorProyecto1.getOutputBuffer());
+	}
+
+	/* Cierra la salida; la salida estandar solo se vacia. */
+	private static void cierraSalida(Salida out) throws IOException {
+		if ( ArgumentProcessorProyecto1.userOutput() )
+			out.cierra();
+		else
+			out.vacia();
+	}
+
+	/* Regresa el ordenamiento en memoria que pidio el usuario con --engine y --threads. */
+	private static Consumer<ListaArreglo<String>> ordenador() {
+		return ordenador(ArgumentProcessorProyecto1.getThreads());
+	}
+
+	/* Regresa el ordenamiento en memoria de --engine, con el numero de hilos dado. */
+	private static Consumer<ListaArreglo<String>> ordenador(int hilos) {
+		if ( ArgumentProcessorProyecto1.getEngine().equals("multikey") )
+			return OrdenamientoMultillave::ordena;
+
+		return lineas -> LineaConLlave.ordena(lineas, hilos);
+	}
+
+	/*
+	 * Lee los ARCHIVO(s) a la vez y los ordena por bloques mientras se leen;
+	 * regresa la concatenacion ordenada.
+	 */
+	private static ListaArreglo<String> lecturaParalela(Lista<String> listaArchivos) {
+		int hilos = ArgumentProcessorProyecto1.getThreads();
+		LecturaParalela lectura = new LecturaParalela(
+				Math.min(listaArchivos.getLongitud(), hilos), hilos, ordenador(1));
+
+		ListaArreglo<String> lineas = null;
+		try {
+			lineas = lectura.ordena(listaArchivos);
+		} catch (IOException ioe) {
+			System.err.printf("No se pudo cargar el archivo \"%s\".\n", ioe.getMessage());
+			System.exit(1);
+		}
+		for ( String nombreArchivo : listaArchivos )
+			System.err.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
+
+		return lineas;
+	}
+
+	/* Ordena con memoria acotada, vaciando bloques ordenados a disco. */
+	private static void ordenamientoExterno(Lista<String> filesList, boolean printReverse) {
+		OrdenamientoExterno externo = new OrdenamientoExterno(
+				ArgumentProcessorProyecto1.getMemoryBudget(), printReverse, ordenador(),
+				ArgumentProcessorProyecto1.unique());
+
+		Estadisticas.inicia("lectura");
+		if ( filesList.getLongitud() == 0 ) {
+			System.err.println("No se encontraron archivos, se leera de la entrada estandar");
+			try {
+				BufferedReader br = entradaEstandar();
+				externo.carga(br);
+				br.close();
+			} catch (IOException ioe) {
+				uso();
+			}
+		} else {
+			for ( String nombreArchivo : filesList ) {
+				try {
+					BufferedReader in = new BufferedReader(new InputStreamReader(
+							Estadisticas.cuenta(new FileInputStream(nombreArchivo))));
+					externo.carga(in);
+					in.close();
+				} catch (IOException ioe) {
+					System.err.printf("No se pudo cargar el archivo \"%s\".\n",
+							  nombreArchivo);
+					System.exit(1);
+				}
+				System.err.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
+			}
+		}
+		/* La lectura incluye ordenar y vaciar a disco los bloques que se llenan. */
+		Estadisticas.termina(externo.getLeidas(), Estadisticas.getBytesLeidos());
+
+		if ( printReverse )
+			System.err.println("Se escogio la opcion de regresar la salida en orden inverso.");
+
+		Estadisticas.inicia("escritura");
+		try {
+			Salida out = abreSalida();
+			externo.escribe(out);
+			cierraSalida(out);
+			Estadisticas.termina(out.getLineas(), out.getBytes());
+		} catch (IOException ioe) {
+			System.err.println("No fue posible escribir la salida ordenada.");
+			System.exit(1);
+		}
+		reportaRepetidas(externo.getRepetidas());
+
+		reportaGuardado();
+	}
+
+	/* Abre un ARCHIVO de entrada, o termina el programa si no se puede. */
+	private static BufferedReader abreEntrada(String nombreArchivo) {
+		try {
+			return new BufferedReader(new InputStreamReader(
+					Estadisticas.cuenta(new FileInputStream(nombreArchivo))));
+		} catch (IOException ioe) {
+			System.err.printf("No se pudo cargar el archivo \"%s\".\n", nombreArchivo);
+			System.exit(1);
+			return null;
+		}
+	}
+
+	/* Escribe solo las primeras N lineas del orden, sin ordenar toda la entrada. */
+	private static void primerasLineas(Lista<String> filesList, boolean printReverse) {
+		PrimerasLineas primeras = new PrimerasLineas(
+				ArgumentProcessorProyecto1.getHeadCount(), printReverse,
+				ArgumentProcessorProyecto1.unique());
+
+		Estadisticas.inicia("lectura");
+		try {
+			if ( filesList.getLongitud() == 0 ) {
+				System.err.println("No se encontraron archivos, se leera de la entrada estandar");
+				BufferedReader br = entradaEstandar();
+				primeras.carga(br);
+				br.close();
+			} else {
+				for ( String nombreArchivo : filesList ) {
+					BufferedReader in = abreEntrada(nombreArchivo);
+					primeras.carga(in);
+					in.close();
+					System.err.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
+				}
+			}
+		} catch (IOException ioe) {
+			System.err.println("No fue posible leer la entrada.");
+			System.exit(1);
+		}
+		Estadisticas.termina(primeras.getLeidas(), Estadisticas.getBytesLeidos());
+
+		if ( printReverse )
+			System.err.println("Se escogio la opcion de regresar la salida en orden inverso.");
+
+		Estadisticas.inicia("escritura");
+		try {
+			Salida out = abreSalida();
+			primeras.escribe(out);
+			cierraSalida(out);
+			Estadisticas.termina(out.getLineas(), out.getBytes());
+		} catch (IOException ioe) {
+			System.err.println("No fue posible escribir la salida ordenada.");
+			System.exit(1);
+		}
+		/* Solo se saben las repeticiones de las lineas que se escribieron. */
+		if ( ArgumentProcessorProyecto1.unique() )
+			System.err.printf("Se quitaron %d lineas repetidas de las primeras %d lineas " +
+					  "(no se cuentan las repeticiones de las demas).\n",
+					  primeras.getRepetidas(), ArgumentProcessorProyecto1.getHeadCount());
+
+		reportaGuardado();
+	}
+
+	/* Mezcla ARCHIVO(s) que ya estan ordenados, sin volver a ordenarlos. */
+	private static void mezclaOrdenados(Lista<String> filesList, boolean printReverse) {
+		BufferedReader[] entradas = new BufferedReader[Math.max(filesList.getLongitud(), 1)];
+		if ( filesList.getLongitud() == 0 ) {
+			System.err.println("No se encontraron archivos, se leera de la entrada estandar");
+			entradas[0] = entradaEstandar();
+		} else {
+			int i = 0;
+			for ( String nombreArchivo : filesList )
+				entradas[i++] = abreEntrada(nombreArchivo);
+		}
+
+		/* Leer, mezclar y escribir pasan a la vez, asi que son una sola fase. */
+		Estadisticas.inicia("mezcla");
+		try {
+			Salida out = abreSalida();
+			long repetidas = Mezcla.mezcla(entradas, out, printReverse,
+						       ArgumentProcessorProyecto1.unique());
+			cierraSalida(out);
+			Estadisticas.termina(out.getLineas() + repetidas,
+					     Estadisticas.getBytesLeidos() + out.getBytes());
+			for ( BufferedReader in : entradas )
+				in.close();
+			reportaRepetidas(repetidas);
+		} catch (IOException ioe) {
+			System.err.println("No fue posible escribir la salida mezclada.");
+			System.exit(1);
+		}
+
+		reportaGuardado();
+	}
+
+	/* Ordena los archivos mapeandolos a memoria, sin crear un String por linea. */
+	private static void ordenamientoMapeado(Lista<String> filesList, boolean printReverse) {
+		EntradaMapeada entrada = null;
+		long bytes = 0;
+		Estadisticas.inicia("lectura");
+		try {
+			for ( String nombreArchivo : filesList )
+				bytes += new File(nombreArchivo).length();
+			entrada = new EntradaMapeada(filesList);
+		} catch (IOException ioe) {
+			System.err.println("No se pudieron mapear los archivos a memoria.");
+			System.exit(1);
+		}
+		for ( String nombreArchivo : filesList )
+			System.err.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
+		Estadisticas.termina(entrada.getLineas(), bytes);
+
+		ordenaIndice(entrada, printReverse);
+	}
+
+	/* Carga los ARCHIVO(s), o la entrada estandar, en una arena compacta de bytes. */
+	private static void ordenamientoArena(Lista<String> filesList, boolean printReverse) {
+		ArenaDeLineas arena = new ArenaDeLineas();
+		Estadisticas.inicia("lectura");
+		if ( filesList.getLongitud() == 0 ) {
+			System.err.println("No se encontraron archivos, se leera de la entrada estandar");
+			try {
+				arena.carga(System.in);
+			} catch (IOException ioe) {
+				uso();
+			}
+		} else {
+			for ( String nombreArchivo : filesList ) {
+				try {
+					FileInputStream in = new FileInputStream(nombreArchivo);
+					arena.carga(in);
+					in.close();
+				} catch (IOException ioe) {
+					System.err.printf("No se pudo cargar el archivo \"%s\".\n",
+							  nombreArchivo);
+					System.exit(1);
+				}
+				System.err.printf("\"%s\" cargado exitosamente.\n", nombreArchivo);
+			}
+		}
+		Estadisticas.termina(arena.getLineas(), arena.getBytes());
+
+		ordenaIndice(arena, printReverse);
+	}
+
+	/*
+	 * Escribe las lineas de los ARCHIVO(s), ya ordenados, que tienen el prefijo
+	 * de --look, buscandolas con busqueda binaria sobre los archivos mapeados.
+	 */
+	private static void busquedaPorPrefijo(Lista<String> filesList, boolean printReverse) {
+		if ( filesList.getLongitud() == 0 ) {
+			System.err.println("--look necesita al menos un ARCHIVO ordenado.");
+			uso();
+		}
+
+		String prefijo = ArgumentProcessorProyecto1.getLookPrefix();
+		Estadisticas.inicia("busqueda");
+		long lineas = 0;
+		int sondeos = 0;
+		Salida out = null;
+		try {
+			out = abreSalida();
+		} catch (IOException ioe) {
+			System.err.println("No fue posible abrir la salida.");
+			System.exit(1);
+		}
+		for ( String nombreArchivo : filesList ) {
+			try {
+				BusquedaPorPrefijo busqueda = new BusquedaPorPrefijo(nombreArchivo);
+				lineas += busqueda.escribe(out, prefijo, printReverse);
+				sondeos += busqueda.getSondeos();
+			} catch (IOException ioe) {
+				System.err.printf("No se pudo buscar en el archivo \"%s\".\n",
+						  nombreArchivo);
+				System.exit(1);
+			}
+		}
+		try {
+			cierraSalida(out);
+		} catch (IOException ioe) {
+			System.err.println("No fue posible escribir las lineas encontradas.");
+			System.exit(1);
+		}
+		Estadisticas.termina(lineas, out.getBytes());
+		System.err.printf("Se encontraron %d lineas con %d sondeos.\n", lineas, sondeos);
+
+		reportaGuardado();
+	}
+
+	/* Ordena y escribe las lineas de un indice de bytes ya cargado. */
+	private static void ordenaIndice(IndiceDeLineas entrada, boolean printReverse) {
+		Estadisticas.inicia("ordenamiento");
+		entrada.ordena();
+		Estadisticas.termina(entrada.getLineas(), 0);
+		if ( printReverse )
+			System.err.println("Se escogio la opcion de regresar la salida en orden inverso.");
+
+		Estadisticas.inicia("escritura");
+		try {
+			Salida out = abreSalida();
+			long repetidas = entrada.escribe(out, printReverse,
+							 ArgumentProcessorProyecto1.unique());
+			cierraSalida(out);
+			Estadisticas.termina(out.getLineas(), out.getBytes());
+			reportaRepetidas(repetidas);
+		} catch (IOException ioe) {
+			System.err.println("No fue posible escribir la salida ordenada.");
+			System.exit(1);
+		}
+
+		reportaGuardado();
+	}
+
 	/* Imprime en pantalla como se usa el programa y lo termina */
 	private static void uso() {
-		System.out.println("Uso: java -jar proyecto1.jar [OPCIONES]... [ARCHIVOS]...\n\n" +
+		System.err.println("Uso: java -jar proyecto1.jar [OPCIONES]... [ARCHIVOS]...\n\n" +
 				   "Escribe la concatenacion ordenada de todos los ARCHIVO(s) a la salida estandar.\n" +
 				   "Sin ARCHIVO, o cuando el ARCHIVO es -, se lee la entrada estandar\n\n" +
 				   "Opciones:\n\n" +
 				   "-r\t\t Imprime en orden inverso el resultado de las comparaciones.\n" +
-				   "-o\t\t Define una salida diferente a la salida estandar.");
+				   "-o\t\t Define una salida diferente a la salida estandar.\n" +
+				   "-m\t\t Solo mezcla los ARCHIVO(s), que ya deben estar ordenados (en\n" +
+				   "\t\t orden inverso si tambien se da -r).\n" +
+				   "-u\t\t Quita las lineas repetidas, conservando la primera de cada grupo.\n" +
+				   "-n N\t\t Escribe solo las primeras N lineas del resultado.\n" +
+				   "-S TAMAÑO\t Ordena con memoria acotada a TAMAÑO (p. ej. 512M), usando\n" +
+				   "\t\t archivos temporales para las entradas que no caben en memoria.\n" +
+				   "--threads N\t Ordena en paralelo con N hilos.\n" +
+				   "--engine MOTOR\t Ordena en memoria con MOTOR: merge (por omision), o multikey\n" +
+				   "\t\t para QuickSort multillave sobre las llaves de colacion, o arena\n" +
+				   "\t\t para guardar las lineas como bytes en bloques compactos.\n" +
+				   "--look PREFIJO\t Escribe las lineas de los ARCHIVO(s), que ya deben estar\n" +
+				   "\t\t ordenados (en orden inverso si tambien se da -r), que empiezan\n" +
+				   "\t\t con PREFIJO, buscandolas con busqueda binaria sin leer todo.\n" +
+				   "--mmap\t\t Mapea los ARCHIVO(s) a memoria en lugar de leerlos linea por linea.\n" +
+				   "--output-buffer TAMAÑO\n" +
+				   "\t\t Escribe la salida en bloques de TAMAÑO (1M por omision).\n" +
+				   "--stats\t\t Imprime el tiempo, las lineas, los bytes, las comparaciones y\n" +
+				   "\t\t el pico del heap de cada fase.\n" +
+				   "--stats-json ARCHIVO\n" +
+				   "\t\t Escribe las mismas estadisticas en ARCHIVO, en JSON.\n\n" +
+				   "Los mensajes informativos se escriben en la salida de errores.");
 		System.exit(1);
 	}
 
 	public static void main(String[] args) {
-		ArgumentProcessorProyecto1.separateList(args);
+		try {
+			ArgumentProcessorProyecto1.separateList(args);
+		} catch ( IllegalArgumentException iae ) {
+			System.err.println(iae.getMessage());
+			uso();
+		}
 		boolean printReverse = ArgumentProcessorProyecto1.printReverse();
 
+		if ( ArgumentProcessorProyecto1.stats() ||
+		     ArgumentProcessorProyecto1.getStatsJson() != null )
+			Estadisticas.activa();
+
 		Lista<String> filesList = ArgumentProcessorProyecto1.getFilesList();
-		Lista<String> lineas = new Lista<String>();
+		if ( ArgumentProcessorProyecto1.look() )
+			busquedaPorPrefijo(filesList, printReverse);
+		else if ( ArgumentProcessorProyecto1.mergeOnly() )
+			mezclaOrdenados(filesList, printReverse);
+		else if ( ArgumentProcessorProyecto1.headOnly() )
+			primerasLineas(filesList, printReverse);
+		else if ( ArgumentProcessorProyecto1.externalSort() )
+			ordenamientoExterno(filesList, printReverse);
+		else if ( ArgumentProcessorProyecto1.memoryMapped() && filesList.getLongitud() > 0 )
+			ordenamientoMapeado(filesList, printReverse);
+		else if ( ArgumentProcessorProyecto1.getEngine().equals("arena") )
+			ordenamientoArena(filesList, printReverse);
+		else
+			ordenamientoEnMemoria(filesList, printReverse);
+
+		reportaEstadisticas();
+	}
+
+	/* Lee toda la entrada a memoria, la ordena y la escribe. */
+	private static void ordenamientoEnMemoria(Lista<String> filesList, boolean printReverse) {
+		ListaArreglo<String> lineas = new ListaArreglo<String>();
+		boolean ordenada = false;
 		if ( filesList.getLongitud() == 0 ) {
-			System.out.println("No se encontraron archivos, se leera de la entrada estandar");
+			System.err.println("No se encontraron archivos, se leera de la entrada estandar");
+			Estadisticas.inicia("lectura");
 			try {			
-				BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
+				BufferedReader br = entradaEstandar();
 				carga(br,lineas);
 				br.close();
 			} catch (IOException ioe) {
 				uso();
 				System.exit(1);
 			}
+		} else if ( filesList.getLongitud() > 1 && ArgumentProcessorProyecto1.getThreads() > 1 ) {
+			/* Los archivos se ordenan mientras se leen, asi que es una sola fase. */
+			Estadisticas.inicia("lectura+orden");
+			lineas = lecturaParalela(filesList);
+			ordenada = true;
 		} else {
+			Estadisticas.inicia("lectura");
 			lineas = lectura(filesList);
 		}
+		Estadisticas.termina(lineas.getElementos(), Estadisticas.getBytesLeidos());
 
-		Lista<String> ordenada = lineas.mergeSort(new StringLexicographicalComparator());
-		if ( printReverse ) {
-			System.out.println("Se escogio la opcion de regresar la salida en orden inverso.");
-			write(ordenada.reversa());
-		} else {
-			write(ordenada);
+		Estadisticas.inicia("ordenamiento");
+		if ( !ordenada )
+			ordenador().accept(lineas);
+		/* La reversa se escribe recorriendo la lista al reves, sin copiarla. */
+		if ( printReverse )
+			System.err.println("Se escogio la opcion de regresar la salida en orden inverso.");
+		long repetidas = 0;
+		if ( ArgumentProcessorProyecto1.unique() )
+			repetidas = LineasUnicas.elimina(lineas, printReverse);
+		Estadisticas.termina(lineas.getElementos(), 0);
+
+		write(lineas, printReverse);
+		reportaRepetidas(repetidas);
+		reportaGuardado();
+	}
+
+	/* Regresa un lector de la entrada estandar que cuenta los bytes leidos. */
+	private static BufferedReader entradaEstandar() {
+		return new BufferedReader(new InputStreamReader(Estadisticas.cuenta(System.in)));
+	}
+
+	/* Imprime las estadisticas de --stats y escribe las de --stats-json. */
+	private static void reportaEstadisticas() {
+		if ( ArgumentProcessorProyecto1.stats() )
+			Estadisticas.imprime(System.err);
+
+		String json = ArgumentProcessorProyecto1.getStatsJson();
+		if ( json == null )
+			return;
+		try {
+			Files.write(Paths.get(json), (Estadisticas.json() + "\n").getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ioe) {
+			System.err.printf("No fue posible escribir las estadisticas en \"%s\".\n", json);
+			System.exit(1);
 		}
 	}
 
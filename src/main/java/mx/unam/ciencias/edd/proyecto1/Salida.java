@@ -0,0 +1,194 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Etapa de salida de lineas hacia un canal.</p>
+ *
+ * <p>Las lineas se codifican directamente a bytes en un buffer grande, y el
+ * buffer se escribe en el canal solo cuando se llena, en una sola llamada.
+ * A diferencia de {@link java.io.PrintStream#println}, escribir una linea no
+ * toma ningun candado ni vacia la salida.</p>
+ *
+ * <p>Si la codificacion es compatible con ASCII, las lineas que solo tienen
+ * caracteres ASCII se copian sin pasar por el codificador. Los caracteres que
+ * no se pueden codificar se reemplazan, igual que con un {@link
+ * java.io.OutputStreamWriter}.</p>
+ */
+public class Salida {
+
+	/** El tamaño del buffer por omision: 1 MB. */
+	public static final int BUFFER_POR_OMISION = 1 << 20;
+
+	/* El canal de salida. */
+	private WritableByteChannel canal;
+	/* El buffer de bytes y su arreglo. */
+	private ByteBuffer buffer;
+	private byte[] bytes;
+	/* El codificador de las lineas. */
+	private CharsetEncoder codificador;
+	/* Si los caracteres ASCII se codifican como un solo byte igual a ellos. */
+	private boolean ascii;
+	/* El numero de lineas escritas y de bytes enviados al canal. */
+	private long lineas;
+	private long bytesEscritos;
+	/* El separador de lineas, y el mismo ya codificado si la codificacion es ASCII. */
+	private CharBuffer separador;
+	private byte[] separadorAscii;
+
+	/**
+	 * Construye una salida al canal.
+	 * @param canal el canal de salida.
+	 * @param codificacion la codificacion de las lineas.
+	 * @param capacidad el tamaño del buffer en bytes; se usan al menos 16.
+	 * @throws IllegalArgumentException si <code>capacidad</code> no es
+	 *         positivo.
+	 */
+	public Salida(WritableByteChannel canal, Charset codificacion, int capacidad) {
+		if ( capacidad < 1 )
+			throw new IllegalArgumentException();
+
+		this.canal = canal;
+		this.bytes = new byte[Math.max(capacidad, 16)];
+		this.buffer = ByteBuffer.wrap(bytes);
+		this.codificador = codificacion.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.ascii = codificacion.equals(StandardCharsets.UTF_8) ||
+			codificacion.equals(StandardCharsets.ISO_8859_1) ||
+			codificacion.equals(StandardCharsets.US_ASCII);
+		this.separador = CharBuffer.wrap(System.lineSeparator());
+		this.separadorAscii = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Escribe una linea, seguida del separador de lineas del sistema.
+	 * @param linea la linea a escribir.
+	 * @throws IOException si ocurre un error al escribir en el canal.
+	 */
+	public void escribeLinea(String linea) throws IOException {
+		if ( !ascii || !copiaAscii(linea) )
+			codifica(CharBuffer.wrap(linea));
+		terminaLinea();
+	}
+
+	/* Copia la linea byte por byte si es ASCII; regresa false si no lo es. */
+	private boolean copiaAscii(String linea) throws IOException {
+		int n = linea.length();
+		for ( int i = 0; i < n; i++ ) {
+			if ( linea.charAt(i) >= 0x80 )
+				return false;
+		}
+
+		int i = 0;
+		while ( i < n ) {
+			if ( !buffer.hasRemaining() )
+				vacia();
+			int p = buffer.position();
+			int m = Math.min(n - i, buffer.remaining());
+			for ( int k = 0; k < m; k++ )
+				bytes[p + k] = (byte)linea.charAt(i + k);
+			buffer.position(p + m);
+			i += m;
+		}
+		return true;
+	}
+
+	/*
+	 * Codifica los caracteres en el buffer, vaciandolo cada vez que se llene.
+	 * El codificador no se reinicia entre lineas, para que las codificaciones
+	 * con marca de orden de bytes solo la escriban al principio.
+	 */
+	private void codifica(CharBuffer caracteres) throws IOException {
+		CoderResult r;
+		while ( (r = codificador.encode(caracteres, buffer, false)).isOverflow() )
+			vacia();
+		if ( r.isError() )
+			r.throwException();
+		/* Un surrogate alto al final de la linea no tiene pareja: se reemplaza. */
+		if ( caracteres.hasRemaining() ) {
+			byte[] reemplazo = codificador.replacement();
+			if ( reemplazo.length > buffer.remaining() )
+				vacia();
+			buffer.put(reemplazo);
+		}
+	}
+
+	/**
+	 * Escribe bytes ya codificados, sin separador de lineas.
+	 * @param origen los bytes a escribir; se consumen todos.
+	 * @throws IOException si ocurre un error al escribir en el canal.
+	 */
+	public void escribe(ByteBuffer origen) throws IOException {
+		if ( origen.remaining() > buffer.remaining() ) {
+			vacia();
+			/* Lo que no cabe en un buffer vacio se escribe directamente. */
+			if ( origen.remaining() > buffer.remaining() ) {
+				while ( origen.hasRemaining() )
+					bytesEscritos += canal.write(origen);
+				return;
+			}
+		}
+		buffer.put(origen);
+	}
+
+	/**
+	 * Escribe el separador de lineas del sistema.
+	 * @throws IOException si ocurre un error al escribir en el canal.
+	 */
+	public void terminaLinea() throws IOException {
+		lineas++;
+		if ( !ascii ) {
+			codifica(separador.duplicate());
+			return;
+		}
+		if ( separadorAscii.length > buffer.remaining() )
+			vacia();
+		buffer.put(separadorAscii);
+	}
+
+	/**
+	 * Escribe en el canal todo lo que esta en el buffer y lo deja vacio.
+	 * @throws IOException si ocurre un error al escribir en el canal.
+	 */
+	public void vacia() throws IOException {
+		buffer.flip();
+		while ( buffer.hasRemaining() )
+			bytesEscritos += canal.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Regresa el numero de lineas escritas.
+	 * @return el numero de lineas escritas.
+	 */
+	public long getLineas() {
+		return lineas;
+	}
+
+	/**
+	 * Regresa el numero de bytes que se han enviado al canal; no cuenta los
+	 * que siguen en el buffer.
+	 * @return el numero de bytes que se han enviado al canal.
+	 */
+	public long getBytes() {
+		return bytesEscritos;
+	}
+
+	/**
+	 * Escribe en el canal todo lo que esta en el buffer y cierra el canal.
+	 * @throws IOException si ocurre un error al escribir o al cerrar el canal.
+	 */
+	public void cierra() throws IOException {
+		vacia();
+		canal.close();
+	}
+}
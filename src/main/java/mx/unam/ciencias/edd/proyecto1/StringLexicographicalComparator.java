@@ -4,13 +4,42 @@ import java.util.Comparator;
 
 public class StringLexicographicalComparator implements Comparator<String> {
 
+	/*
+	 * Recorre ambas cadenas plegando cada caracter al vuelo y se detiene en el
+	 * primer caracter plegado distinto; no construye cadenas intermedias.
+	 */
 	@Override
 	public int compare(String str1, String str2) {
-		str1 = StripAccents.stripAccents(str1); 
-		str2 = StripAccents.stripAccents(str2); 
-		str1 = str1.replaceAll("[¿?¡!,.]", "");
-		str2 = str2.replaceAll("[¿?¡!,.]", "");
+		Estadisticas.cuentaComparacion();
+		int n1 = str1.length();
+		int n2 = str2.length();
+		int i = 0;
+		int j = 0;
 
-		return str1.compareToIgnoreCase(str2);
+		while ( true ) {
+			int c1 = -1;
+			int c2 = -1;
+			while ( c1 == -1 && i < n1 )
+				c1 = StripAccents.pliega(str1.charAt(i++));
+			while ( c2 == -1 && j < n2 )
+				c2 = StripAccents.pliega(str2.charAt(j++));
+
+			if ( c1 == -1 || c2 == -1 )
+				return Integer.compare(c1, c2);
+			if ( c1 != c2 )
+				return c1 - c2;
+		}
+	}
+
+	/**
+	 * Regresa la llave de colacion de una cadena: la cadena sin acentos, sin
+	 * los signos <code>¿?¡!,.</code> y con mayusculas y minusculas plegadas.
+	 * Para cualesquiera dos cadenas, comparar sus llaves con {@link
+	 * String#compareTo} da el mismo signo que {@link #compare}.
+	 * @param str la cadena de la que se quiere la llave.
+	 * @return la llave de colacion de la cadena.
+	 */
+	public static String llave(String str) {
+		return StripAccents.normaliza(str);
 	}
 }
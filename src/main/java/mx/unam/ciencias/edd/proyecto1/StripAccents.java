@@ -2,20 +2,93 @@ package mx.unam.ciencias.edd.proyecto1;
 
 public class StripAccents {
 
+	/* Las vocales acentuadas que se quitan, y la vocal sin acento que les corresponde. */
+	private static final String ACENTUADAS = "áàâäèéêëìíîïòóôöùûúüÀÂÁÄÈÊÉËÌÎÏÍÒÔÓÖÙÛÚÜ";
+	private static final String SIN_ACENTO = "aaaaeeeeiiiioooouuuuAAAAEEEEIIIIOOOOUUUU";
+	/* Los signos que se ignoran al comparar. */
+	private static final String SIGNOS = "¿?¡!,.";
+
+	/* Para cada caracter menor a 256, el mismo caracter sin acento. */
+	private static final char[] SIN_ACENTOS = new char[256];
+	/* Para cada caracter menor a 256, su forma plegada, o -1 si se ignora. */
+	private static final int[] PLEGADO = new int[256];
+
+	static {
+		for ( int c = 0; c < 256; c++ )
+			SIN_ACENTOS[c] = (char)c;
+		for ( int i = 0; i < ACENTUADAS.length(); i++ )
+			SIN_ACENTOS[ACENTUADAS.charAt(i)] = SIN_ACENTO.charAt(i);
+
+		for ( int c = 0; c < 256; c++ )
+			PLEGADO[c] = plegaCaso(SIN_ACENTOS[c]);
+		for ( int i = 0; i < SIGNOS.length(); i++ )
+			PLEGADO[SIGNOS.charAt(i)] = -1;
+	}
+
+	/* Pliega mayusculas y minusculas igual que String.compareToIgnoreCase. */
+	private static char plegaCaso(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
 	public static String stripAccents(String str1) {
+		int n = str1.length();
+		int i = 0;
+		while ( i < n && !cambiaAcento(str1.charAt(i)) )
+			i++;
+		if ( i == n )
+			return str1;
+
+		char[] s = str1.toCharArray();
+		for ( ; i < n; i++ ) {
+			if ( s[i] < 256 )
+				s[i] = SIN_ACENTOS[s[i]];
+		}
+
+		return new String(s);
+	}
+
+	/* Nos dice si stripAccents cambia al caracter. */
+	private static boolean cambiaAcento(char c) {
+		return c < 256 && SIN_ACENTOS[c] != c;
+	}
+
+	/**
+	 * Regresa la forma plegada de un caracter: sin acento y con mayusculas y
+	 * minusculas plegadas, o -1 si el caracter es uno de los signos
+	 * <code>¿?¡!,.</code> que se ignoran al comparar.
+	 * @param c el caracter a plegar.
+	 * @return la forma plegada del caracter, o -1 si se ignora.
+	 */
+	public static int pliega(char c) {
+		return c < 256 ? PLEGADO[c] : plegaCaso(c);
+	}
 
-		str1 = str1.replaceAll("[áàâä]", "a");
-		str1 = str1.replaceAll("[èéêë]","e");
-		str1 = str1.replaceAll("[ìíîï]","i");
-		str1 = str1.replaceAll("[òóôö]","o");
-		str1 = str1.replaceAll("[ùûúü]","u");
+	/**
+	 * Normaliza una cadena en una sola pasada: le quita los acentos, los signos
+	 * <code>¿?¡!,.</code> y pliega mayusculas y minusculas. Es equivalente a
+	 * aplicar {@link #stripAccents}, borrar los signos y plegar el caso, pero
+	 * no usa expresiones regulares; si la cadena ya esta normalizada la regresa
+	 * sin copiarla.
+	 * @param str la cadena a normalizar.
+	 * @return la cadena normalizada.
+	 */
+	public static String normaliza(String str) {
+		int n = str.length();
+		int i = 0;
+		while ( i < n && pliega(str.charAt(i)) == str.charAt(i) )
+			i++;
+		if ( i == n )
+			return str;
 
-		str1 = str1.replaceAll("[ÀÂÁÄ]","A");
-		str1 = str1.replaceAll("[ÈÊÉË]","E");
-		str1 = str1.replaceAll("[ÌÎÏÍ]","I");
-		str1 = str1.replaceAll("[ÒÔÓÖ]","O");
-		str1 = str1.replaceAll("[ÙÛÚÜ]","U");
+		char[] s = new char[n];
+		str.getChars(0, i, s, 0);
+		int j = i;
+		for ( ; i < n; i++ ) {
+			int c = pliega(str.charAt(i));
+			if ( c != -1 )
+				s[j++] = (char)c;
+		}
 
-		return str1;
+		return new String(s, 0, j);
 	}
 }
@@ -0,0 +1,163 @@
+package mx.unam.ciencias.edd;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link Arreglos#quickSort} y {@link
+ * Arreglos#quickSortDoblePivote} contra {@link Arrays#sort}.
+ */
+public class ArreglosTest {
+
+    /* Longitudes de prueba: alrededor del corte a inserción, y grandes. */
+    private static final int[] LONGITUDES = {
+	    0, 1, 2, 3, 15, 16, 17, 18, 31, 32, 33, 127, 128, 129, 1000, 100000
+    };
+
+    /* Las distribuciones de prueba. */
+    private static final String[] DISTRIBUCIONES = {
+	    "ordenado", "inverso", "iguales", "pocos", "aleatorio", "organo"
+    };
+
+    /* Genera n enteros con la distribución dada. */
+    private static Integer[] genera(int n, String distribucion, Random r) {
+	    Integer[] a = new Integer[n];
+	    for ( int i = 0; i < n; i++ ) {
+		    switch ( distribucion ) {
+		    case "ordenado":  a[i] = i; break;
+		    case "inverso":   a[i] = n - i; break;
+		    case "iguales":   a[i] = 7; break;
+		    case "pocos":     a[i] = r.nextInt(4); break;
+		    case "aleatorio": a[i] = r.nextInt(); break;
+		    default:          a[i] = Math.min(i, n - i); break;
+		    }
+	    }
+	    return a;
+    }
+
+    /* Ordena copias del arreglo con el ordenamiento y con Arrays.sort, y las compara. */
+    private static void comparaConArrays(Integer[] a, boolean doblePivote, String caso) {
+	    Integer[] esperado = a.clone();
+	    Arrays.sort(esperado);
+	    Integer[] obtenido = a.clone();
+	    if ( doblePivote )
+		    Arreglos.quickSortDoblePivote(obtenido, Integer::compare);
+	    else
+		    Arreglos.quickSort(obtenido, Integer::compare);
+	    assertArrayEquals(caso, esperado, obtenido);
+    }
+
+    /* Prueba un ordenamiento con todas las longitudes y distribuciones. */
+    private static void pruebaDistribuciones(boolean doblePivote) {
+	    Random r = new Random(10);
+	    for ( int n : LONGITUDES )
+		    for ( String d : DISTRIBUCIONES )
+			    comparaConArrays(genera(n, d, r), doblePivote, d + " n=" + n);
+    }
+
+    /**
+     * Prueba QuickSort con arreglos ordenados, en reversa, iguales, con pocos
+     * distintos y al azar.
+     */
+    @Test
+    public void testQuickSort() {
+	    pruebaDistribuciones(false);
+    }
+
+    /**
+     * Prueba QuickSort de doble pivote con las mismas entradas.
+     */
+    @Test
+    public void testQuickSortDoblePivote() {
+	    pruebaDistribuciones(true);
+    }
+
+    /*
+     * Comparador adversario de McIlroy ("A Killer Adversary for Quicksort"):
+     * los elementos empiezan sin valor (gas) y solo reciben uno cuando hace
+     * falta, escogido para que el pivote sea siempre de los más chicos. Así
+     * QuickSort se vuelve cuadrático, y solo el respaldo con HeapSort lo
+     * mantiene en O(n log n). Con dos pivotes, comparar dos elementos sin
+     * valor les da a ambos los más chicos que quedan: los pivotes se comparan
+     * primero entre sí, y todo lo demás cae en la parte de los mayores.
+     */
+    private static class Adversario implements Comparator<Integer> {
+	    private int[] valores;
+	    private int gas;
+	    private int solidos;
+	    private int candidato;
+	    private boolean ambos;
+	    private long comparaciones;
+
+	    private Adversario(int n, boolean ambos) {
+		    valores = new int[n];
+		    gas = n;
+		    this.ambos = ambos;
+		    Arrays.fill(valores, gas);
+	    }
+
+	    @Override public int compare(Integer x, Integer y) {
+		    comparaciones++;
+		    if ( valores[x] == gas && valores[y] == gas ) {
+			    if ( ambos ) {
+				    valores[x] = solidos++;
+				    valores[y] = solidos++;
+			    } else {
+				    valores[x == candidato ? x : y] = solidos++;
+			    }
+		    }
+		    if ( valores[x] == gas )
+			    candidato = x;
+		    else if ( valores[y] == gas )
+			    candidato = y;
+		    return Integer.compare(valores[x], valores[y]);
+	    }
+    }
+
+    /* Ordena con el adversario y revisa el orden y el número de comparaciones. */
+    private static void pruebaAdversario(boolean doblePivote) {
+	    int n = 50000;
+	    Integer[] a = new Integer[n];
+	    for ( int i = 0; i < n; i++ )
+		    a[i] = i;
+	    Adversario adversario = new Adversario(n, doblePivote);
+	    if ( doblePivote )
+		    Arreglos.quickSortDoblePivote(a, adversario);
+	    else
+		    Arreglos.quickSort(a, adversario);
+
+	    // Sin el respaldo serían del orden de n²/2 = 1.25e9 comparaciones.
+	    assertTrue("demasiadas comparaciones: " + adversario.comparaciones,
+		       adversario.comparaciones < 100L * n * 16);
+
+	    for ( int i = 1; i < n; i++ )
+		    assertTrue("fuera de orden en " + i,
+			       adversario.compare(a[i - 1], a[i]) <= 0);
+	    Integer[] indices = a.clone();
+	    Arrays.sort(indices);
+	    for ( int i = 0; i < n; i++ )
+		    assertTrue("falta " + i, indices[i] == i);
+    }
+
+    /**
+     * Prueba QuickSort con una entrada que lo lleva al respaldo con HeapSort.
+     */
+    @Test
+    public void testQuickSortProfundo() {
+	    pruebaAdversario(false);
+    }
+
+    /**
+     * Prueba QuickSort de doble pivote con una entrada que lo lleva al
+     * respaldo con HeapSort.
+     */
+    @Test
+    public void testQuickSortDoblePivoteProfundo() {
+	    pruebaAdversario(true);
+    }
+}
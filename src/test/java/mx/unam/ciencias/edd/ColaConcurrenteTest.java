@@ -0,0 +1,167 @@
+package mx.unam.ciencias.edd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * Pruebas de estrés de {@link ColaConcurrente}.
+ */
+public class ColaConcurrenteTest {
+
+    /* Número de hilos productores y consumidores. */
+    private static final int PRODUCTORES = 4;
+    private static final int CONSUMIDORES = 4;
+    /* Elementos que mete cada productor. */
+    private static final int POR_PRODUCTOR = 200000;
+    /* El elemento que le dice a un consumidor que termine. */
+    private static final int FIN = -1;
+
+    /* Codifica el i-ésimo elemento del productor p. */
+    private static int elemento(int p, int i) {
+	    return p * POR_PRODUCTOR + i;
+    }
+
+    /* Corre productores y consumidores sobre una cola chica y revisa que
+     * cada elemento salga exactamente una vez y que los elementos de un
+     * mismo productor salgan en orden para cada consumidor. */
+    private void estres(boolean bloqueante) throws InterruptedException {
+	    ColaConcurrente<Integer> cola = new ColaConcurrente<Integer>(64);
+	    int[] vistos = new int[PRODUCTORES * POR_PRODUCTOR];
+	    AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+	    Thread[] hilos = new Thread[PRODUCTORES + CONSUMIDORES];
+
+	    for ( int p = 0; p < PRODUCTORES; p++ ) {
+		    int productor = p;
+		    hilos[p] = new Thread(() -> {
+			    try {
+				    for ( int i = 0; i < POR_PRODUCTOR; i++ )
+					    mete(cola, elemento(productor, i), bloqueante);
+			    } catch ( Throwable t ) {
+				    error.compareAndSet(null, t);
+			    }
+		    });
+	    }
+	    for ( int c = 0; c < CONSUMIDORES; c++ ) {
+		    hilos[PRODUCTORES + c] = new Thread(() -> {
+			    try {
+				    int[] ultimo = new int[PRODUCTORES];
+				    for ( int p = 0; p < PRODUCTORES; p++ )
+					    ultimo[p] = -1;
+				    while ( true ) {
+					    int e = saca(cola, bloqueante);
+					    if ( e == FIN )
+						    return;
+					    int p = e / POR_PRODUCTOR;
+					    if ( e <= ultimo[p] )
+						    throw new AssertionError("fuera de orden: " + e);
+					    ultimo[p] = e;
+					    synchronized ( vistos ) {
+						    vistos[e]++;
+					    }
+				    }
+			    } catch ( Throwable t ) {
+				    error.compareAndSet(null, t);
+			    }
+		    });
+	    }
+
+	    for ( int i = 0; i < PRODUCTORES; i++ )
+		    hilos[i].start();
+	    for ( int i = PRODUCTORES; i < hilos.length; i++ )
+		    hilos[i].start();
+	    for ( int i = 0; i < PRODUCTORES; i++ )
+		    hilos[i].join(60000);
+	    for ( int c = 0; c < CONSUMIDORES; c++ )
+		    mete(cola, FIN, true);
+	    for ( Thread t : hilos )
+		    t.join(60000);
+	    for ( Thread t : hilos )
+		    assertFalse("un hilo no terminó", t.isAlive());
+	    if ( error.get() != null )
+		    throw new AssertionError(error.get());
+
+	    synchronized ( vistos ) {
+		    for ( int i = 0; i < vistos.length; i++ )
+			    assertEquals("elemento " + i, 1, vistos[i]);
+	    }
+	    assertTrue(cola.esVacia());
+    }
+
+    /* Mete esperando, o reintentando sin bloquear. */
+    private static void mete(ColaConcurrente<Integer> cola, int e, boolean bloqueante)
+	    throws InterruptedException {
+	    if ( bloqueante )
+		    cola.meteEsperando(e);
+	    else
+		    while ( !cola.intentaMeter(e) )
+			    Thread.yield();
+    }
+
+    /* Saca esperando, o reintentando sin bloquear. */
+    private static int saca(ColaConcurrente<Integer> cola, boolean bloqueante)
+	    throws InterruptedException {
+	    if ( bloqueante )
+		    return cola.sacaEsperando();
+	    Integer e;
+	    while ( (e = cola.intentaSacar()) == null )
+		    Thread.yield();
+	    return e;
+    }
+
+    /**
+     * Prueba varios productores y consumidores que se bloquean.
+     * @throws InterruptedException si se interrumpe la prueba.
+     */
+    @Test(timeout = 120000)
+    public void testEstresBloqueante() throws InterruptedException {
+	    estres(true);
+    }
+
+    /**
+     * Prueba varios productores y consumidores que no se bloquean.
+     * @throws InterruptedException si se interrumpe la prueba.
+     */
+    @Test(timeout = 120000)
+    public void testEstresNoBloqueante() throws InterruptedException {
+	    estres(false);
+    }
+
+    /**
+     * Prueba la semántica de un solo hilo: orden, capacidad y los casos de
+     * cola llena y vacía.
+     * @throws InterruptedException si se interrumpe la prueba.
+     */
+    @Test
+    public void testUnHilo() throws InterruptedException {
+	    ColaConcurrente<Integer> cola = new ColaConcurrente<Integer>(3);
+	    assertEquals(4, cola.getCapacidad());
+	    assertTrue(cola.esVacia());
+	    assertNull(cola.intentaSacar());
+	    assertNull(cola.intentaSacar(1, TimeUnit.MILLISECONDS));
+	    for ( int vuelta = 0; vuelta < 3; vuelta++ ) {
+		    for ( int i = 0; i < 4; i++ )
+			    cola.mete(i);
+		    assertFalse(cola.intentaMeter(4));
+		    assertFalse(cola.intentaMeter(4, 1, TimeUnit.MILLISECONDS));
+		    assertEquals(4, cola.getElementos());
+		    assertEquals(Integer.valueOf(0), cola.mira());
+		    for ( int i = 0; i < 4; i++ )
+			    assertEquals(Integer.valueOf(i), cola.saca());
+	    }
+	    try {
+		    cola.saca();
+		    throw new AssertionError();
+	    } catch ( NoSuchElementException nsee ) {}
+	    try {
+		    cola.mete(null);
+		    throw new AssertionError();
+	    } catch ( IllegalArgumentException iae ) {}
+    }
+}
@@ -0,0 +1,67 @@
+package mx.unam.ciencias.edd.proyecto1;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ListaArreglo;
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link OrdenamientoMultillave}.
+ */
+public class OrdenamientoMultillaveTest {
+
+	/* Ordena las lineas con QuickSort multillave y con el comparador, y
+	 * revisa que queden en el mismo orden. */
+	private static void comparaConComparador(String[] lineas) {
+		ListaArreglo<String> multillave = new ListaArreglo<String>();
+		ListaArreglo<String> referencia = new ListaArreglo<String>();
+		for ( String linea : lineas ) {
+			multillave.agrega(linea);
+			referencia.agrega(linea);
+		}
+		OrdenamientoMultillave.ordena(multillave);
+		referencia.ordena(new StringLexicographicalComparator());
+		assertEquals(referencia.getElementos(), multillave.getElementos());
+		for ( int i = 0; i < lineas.length; i++ )
+			assertEquals("linea " + i, referencia.get(i), multillave.get(i));
+	}
+
+	/**
+	 * Prueba lineas con un prefijo comun de miles de caracteres, que antes
+	 * desbordaban la pila.
+	 */
+	@Test
+	public void testPrefijoComunLargo() {
+		Random r = new Random(9);
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0; i < 5000; i++ )
+			sb.append((char)( 'a' + r.nextInt(3) ));
+		String prefijo = sb.toString();
+
+		String[] lineas = new String[400];
+		for ( int i = 0; i < lineas.length; i++ ) {
+			String sufijo = Integer.toString(r.nextInt(50));
+			lineas[i] = ( i % 2 == 0 ) ? prefijo + sufijo : prefijo.toUpperCase() + " " + sufijo;
+		}
+		comparaConComparador(lineas);
+	}
+
+	/**
+	 * Prueba lineas cortas al azar, con acentos, repetidas y vacias.
+	 */
+	@Test
+	public void testAlAzar() {
+		Random r = new Random(17);
+		String alfabeto = "aAbBéÉ ñÑ-z";
+		String[] lineas = new String[2000];
+		for ( int i = 0; i < lineas.length; i++ ) {
+			StringBuilder sb = new StringBuilder();
+			int n = r.nextInt(6);
+			for ( int j = 0; j < n; j++ )
+				sb.append(alfabeto.charAt(r.nextInt(alfabeto.length())));
+			lineas[i] = sb.toString();
+		}
+		comparaConComparador(lineas);
+	}
+}